@@ -0,0 +1,200 @@
+package com.sudolev.dynamicvillage.backfill;
+
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Just enough of the NBT format for the backfill, without Minecraft on the classpath. Compounds keep their tags in
+ * order and lists their element type, so a chunk written back holds the same tags it was read with.
+ */
+final class Nbt {
+    static final byte END = 0;
+    static final byte BYTE = 1;
+    static final byte SHORT = 2;
+    static final byte INT = 3;
+    static final byte LONG = 4;
+    static final byte FLOAT = 5;
+    static final byte DOUBLE = 6;
+    static final byte BYTE_ARRAY = 7;
+    static final byte STRING = 8;
+    static final byte LIST = 9;
+    static final byte COMPOUND = 10;
+    static final byte INT_ARRAY = 11;
+    static final byte LONG_ARRAY = 12;
+
+    record Tag(byte type, Object value) {
+    }
+
+    static final class ListTag {
+        byte elementType;
+        final List<Object> elements;
+
+        ListTag(byte elementType, List<Object> elements) {
+            this.elementType = elementType;
+            this.elements = elements;
+        }
+    }
+
+    static final class Compound {
+        final Map<String, Tag> tags = new LinkedHashMap<>();
+
+        Compound getCompound(String name) {
+            Tag tag = tags.get(name);
+            return tag != null && tag.type() == COMPOUND ? (Compound) tag.value() : null;
+        }
+
+        ListTag getList(String name) {
+            Tag tag = tags.get(name);
+            return tag != null && tag.type() == LIST ? (ListTag) tag.value() : null;
+        }
+
+        Integer getInt(String name) {
+            Tag tag = tags.get(name);
+            return tag != null && tag.value() instanceof Number number && tag.type() <= LONG ? number.intValue() : null;
+        }
+
+        String getString(String name) {
+            Tag tag = tags.get(name);
+            return tag != null && tag.type() == STRING ? (String) tag.value() : null;
+        }
+
+        int[] getIntArray(String name) {
+            Tag tag = tags.get(name);
+            return tag != null && tag.type() == INT_ARRAY ? (int[]) tag.value() : null;
+        }
+
+        long[] getLongArray(String name) {
+            Tag tag = tags.get(name);
+            return tag != null && tag.type() == LONG_ARRAY ? (long[]) tag.value() : null;
+        }
+
+        void put(String name, byte type, Object value) {
+            tags.put(name, new Tag(type, value));
+        }
+    }
+
+    private Nbt() {
+    }
+
+    // Null when the root isn't a compound
+    static Compound readRoot(InputStream stream) throws IOException {
+        DataInputStream input = new DataInputStream(stream);
+        if (input.readByte() != COMPOUND) return null;
+        input.readUTF();
+        return (Compound) read(COMPOUND, input);
+    }
+
+    static void writeRoot(Compound compound, OutputStream stream) throws IOException {
+        DataOutputStream output = new DataOutputStream(stream);
+        output.writeByte(COMPOUND);
+        output.writeUTF("");
+        write(COMPOUND, compound, output);
+        output.flush();
+    }
+
+    private static Object read(byte type, DataInput input) throws IOException {
+        return switch (type) {
+            case BYTE -> input.readByte();
+            case SHORT -> input.readShort();
+            case INT -> input.readInt();
+            case LONG -> input.readLong();
+            case FLOAT -> input.readFloat();
+            case DOUBLE -> input.readDouble();
+            case BYTE_ARRAY -> {
+                byte[] bytes = new byte[input.readInt()];
+                input.readFully(bytes);
+                yield bytes;
+            }
+            case STRING -> input.readUTF();
+            case LIST -> {
+                byte elementType = input.readByte();
+                int size = input.readInt();
+                List<Object> elements = new ArrayList<>(Math.max(size, 0));
+                for (int i = 0; i < size; i++) {
+                    elements.add(read(elementType, input));
+                }
+                yield new ListTag(elementType, elements);
+            }
+            case COMPOUND -> {
+                Compound compound = new Compound();
+                for (byte tagType = input.readByte(); tagType != END; tagType = input.readByte()) {
+                    String name = input.readUTF();
+                    compound.put(name, tagType, read(tagType, input));
+                }
+                yield compound;
+            }
+            case INT_ARRAY -> {
+                int[] ints = new int[input.readInt()];
+                for (int i = 0; i < ints.length; i++) {
+                    ints[i] = input.readInt();
+                }
+                yield ints;
+            }
+            case LONG_ARRAY -> {
+                long[] longs = new long[input.readInt()];
+                for (int i = 0; i < longs.length; i++) {
+                    longs[i] = input.readLong();
+                }
+                yield longs;
+            }
+            default -> throw new IOException("Unknown NBT tag type " + type);
+        };
+    }
+
+    private static void write(byte type, Object value, DataOutput output) throws IOException {
+        switch (type) {
+            case BYTE -> output.writeByte((Byte) value);
+            case SHORT -> output.writeShort((Short) value);
+            case INT -> output.writeInt((Integer) value);
+            case LONG -> output.writeLong((Long) value);
+            case FLOAT -> output.writeFloat((Float) value);
+            case DOUBLE -> output.writeDouble((Double) value);
+            case BYTE_ARRAY -> {
+                byte[] bytes = (byte[]) value;
+                output.writeInt(bytes.length);
+                output.write(bytes);
+            }
+            case STRING -> output.writeUTF((String) value);
+            case LIST -> {
+                ListTag list = (ListTag) value;
+                output.writeByte(list.elements.isEmpty() ? END : list.elementType);
+                output.writeInt(list.elements.size());
+                for (Object element : list.elements) {
+                    write(list.elementType, element, output);
+                }
+            }
+            case COMPOUND -> {
+                for (Map.Entry<String, Tag> entry : ((Compound) value).tags.entrySet()) {
+                    output.writeByte(entry.getValue().type());
+                    output.writeUTF(entry.getKey());
+                    write(entry.getValue().type(), entry.getValue().value(), output);
+                }
+                output.writeByte(END);
+            }
+            case INT_ARRAY -> {
+                int[] ints = (int[]) value;
+                output.writeInt(ints.length);
+                for (int element : ints) {
+                    output.writeInt(element);
+                }
+            }
+            case LONG_ARRAY -> {
+                long[] longs = (long[]) value;
+                output.writeInt(longs.length);
+                for (long element : longs) {
+                    output.writeLong(element);
+                }
+            }
+            default -> throw new IOException("Unknown NBT tag type " + type);
+        }
+    }
+}
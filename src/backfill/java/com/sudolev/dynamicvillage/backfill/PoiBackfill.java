@@ -0,0 +1,463 @@
+package com.sudolev.dynamicvillage.backfill;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Writes the POI records of Create job site blocks built before this mod was installed into the poi files of a world.
+ * The game only adds them when it rescans a chunk section, and it never rescans sections it already marked valid.
+ * Region files are read in parallel and records that are already there are left alone, so it can run again safely.
+ * Sections without a poi entry yet are written unvalidated, so the game still adds vanilla POIs to them on first load.
+ * With filteredJobSites enabled in the common config, drills and stations only become job sites within
+ * filteredJobSiteRange of a meeting point, like the ones a player places in game. Plain Java without Minecraft on the
+ * classpath, run with the server stopped.
+ */
+public final class PoiBackfill {
+    private static final String USAGE = "Usage: java -jar dynamicvillage-<version>-poi-backfill.jar <world folder> [--dry-run] [--threads <n>] [--config <file>]";
+    // Block names and POI types as ModVillagers registers them
+    private static final Map<String, String> POI_TYPES = Map.of(
+            "create:schematic_table", "dynamicvillage:create_engineer_poi",
+            "create:item_drain", "dynamicvillage:create_hydraulic_engineer_poi",
+            "create:mechanical_drill", "dynamicvillage:create_miner_poi",
+            "create:track_station", "dynamicvillage:create_mechanic_poi");
+    // The ones JobSiteFilter takes out of the block state lookup
+    private static final Set<String> FILTERED_TYPES = Set.of("dynamicvillage:create_miner_poi", "dynamicvillage:create_mechanic_poi");
+    private static final String MEETING = "minecraft:meeting";
+    private static final String BELL = "minecraft:bell";
+    private static final String CONFIG = "dynamicvillage-common.toml";
+    private static final int DEFAULT_FILTERED_RANGE = 48;
+
+    private record Options(Path world, boolean dryRun, int threads, boolean filtered, int filteredRange, String configSource) {
+    }
+
+    private record Block(String type, int x, int y, int z) {
+        // Same distance PoiManager#getInRange measures
+        boolean isNear(Block other, int range) {
+            long dx = x - other.x;
+            long dy = y - other.y;
+            long dz = z - other.z;
+            return dx * dx + dy * dy + dz * dz <= (long) range * range;
+        }
+    }
+
+    // What a region file holds, job sites keyed by chunk index
+    private static final class Scan {
+        final Path regionFile;
+        final String dimension;
+        final Map<Integer, List<Block>> jobSites = new TreeMap<>();
+        final Map<Integer, Integer> dataVersions = new HashMap<>();
+        final List<Block> meetingPoints = new ArrayList<>();
+        int chunks;
+        int skipped;
+
+        Scan(Path regionFile, String dimension) {
+            this.regionFile = regionFile;
+            this.dimension = dimension;
+        }
+    }
+
+    private static final class Totals {
+        int regions;
+        long chunks;
+        long skipped;
+        long blocks;
+        long excluded;
+        long added;
+        long present;
+        long created;
+        final Map<String, Long> types = new TreeMap<>();
+
+        void add(Totals other) {
+            regions += other.regions;
+            chunks += other.chunks;
+            skipped += other.skipped;
+            blocks += other.blocks;
+            excluded += other.excluded;
+            added += other.added;
+            present += other.present;
+            created += other.created;
+            other.types.forEach((type, count) -> types.merge(type, count, Long::sum));
+        }
+    }
+
+    private PoiBackfill() {
+    }
+
+    public static void main(String[] args) {
+        Options options;
+        try {
+            options = parseOptions(args);
+        } catch (IllegalArgumentException | IOException exception) {
+            System.err.println(exception.getMessage());
+            System.err.println(USAGE);
+            System.exit(2);
+            return;
+        }
+
+        try {
+            run(options);
+        } catch (Exception exception) {
+            System.err.println("Couldn't backfill POIs of " + options.world() + ": " + exception.getMessage());
+            exception.printStackTrace();
+            System.exit(1);
+        }
+    }
+
+    private static Options parseOptions(String[] args) throws IOException {
+        Path world = null;
+        Path config = null;
+        boolean dryRun = false;
+        int threads = Runtime.getRuntime().availableProcessors();
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--dry-run" -> dryRun = true;
+                case "--threads" -> {
+                    if (++i >= args.length) throw new IllegalArgumentException("--threads needs a number");
+                    threads = Integer.parseInt(args[i]);
+                    if (threads < 1) throw new IllegalArgumentException("--threads needs a positive number");
+                }
+                case "--config" -> {
+                    if (++i >= args.length) throw new IllegalArgumentException("--config needs a file");
+                    config = Path.of(args[i]);
+                    if (!Files.isRegularFile(config)) throw new IllegalArgumentException(config + " doesn't exist");
+                }
+                default -> {
+                    if (args[i].startsWith("--") || world != null) throw new IllegalArgumentException("Unknown argument " + args[i]);
+                    world = Path.of(args[i]);
+                }
+            }
+        }
+        if (world == null) throw new IllegalArgumentException("Pass the world folder");
+        if (!Files.isRegularFile(world.resolve("level.dat"))) throw new IllegalArgumentException(world + " is not a world folder");
+
+        if (config == null) config = findConfig(world);
+        if (config == null) {
+            return new Options(world, dryRun, threads, false, DEFAULT_FILTERED_RANGE, "no " + CONFIG + " found, defaults");
+        }
+        Map<String, String> values = readConfig(config);
+        boolean filtered = Boolean.parseBoolean(values.get("villagers.filteredJobSites"));
+        String range = values.get("villagers.filteredJobSiteRange");
+        return new Options(world, dryRun, threads, filtered, range == null ? DEFAULT_FILTERED_RANGE : Integer.parseInt(range),
+                config.toString());
+    }
+
+    // The config folder of the game next to a server's world folder, or two levels up from a singleplayer save
+    private static Path findConfig(Path world) {
+        Path directory = world.toAbsolutePath().normalize().getParent();
+        for (int i = 0; i < 2 && directory != null; i++, directory = directory.getParent()) {
+            Path config = directory.resolve("config").resolve(CONFIG);
+            if (Files.isRegularFile(config)) return config;
+        }
+        return null;
+    }
+
+    // Only the flat key = value lines Forge writes, keyed by table and name
+    private static Map<String, String> readConfig(Path config) throws IOException {
+        Map<String, String> values = new HashMap<>();
+        String table = "";
+        for (String line : Files.readAllLines(config)) {
+            line = line.strip();
+            if (line.isEmpty() || line.startsWith("#")) continue;
+            if (line.startsWith("[") && line.endsWith("]")) {
+                table = line.substring(1, line.length() - 1).strip();
+                continue;
+            }
+            int equals = line.indexOf('=');
+            if (equals > 0) {
+                values.put(table + "." + line.substring(0, equals).strip(), line.substring(equals + 1).strip());
+            }
+        }
+        return values;
+    }
+
+    private static void run(Options options) throws IOException, InterruptedException, ExecutionException {
+        List<Path> regionFiles;
+        try (Stream<Path> files = Files.walk(options.world())) {
+            regionFiles = files.filter(file -> file.getParent() != null && file.getParent().getFileName().toString().equals("region"))
+                    .filter(file -> file.getFileName().toString().matches("r\\.-?\\d+\\.-?\\d+\\.mca"))
+                    .sorted()
+                    .toList();
+        }
+
+        // A running game holds this lock for as long as the world is open
+        try (FileChannel lockChannel = options.dryRun() ? null : FileChannel.open(options.world().resolve("session.lock"),
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+            FileLock lock = lockChannel == null ? null : lockChannel.tryLock();
+            if (lockChannel != null && lock == null) {
+                throw new IOException(options.world() + " is open in a running game, stop the server first");
+            }
+
+            long start = System.nanoTime();
+            Map<String, Totals> totals = backfill(options, regionFiles);
+            double seconds = (System.nanoTime() - start) / 1.0E9D;
+            printReport(options, totals, regionFiles.size(), seconds);
+        }
+    }
+
+    private static Map<String, Totals> backfill(Options options, List<Path> regionFiles)
+            throws InterruptedException, ExecutionException {
+        ExecutorService executor = Executors.newFixedThreadPool(options.threads());
+        try {
+            // Meeting points of other region files count too, so every region is read before any is written
+            List<Future<Scan>> scanFutures = new ArrayList<>();
+            for (Path regionFile : regionFiles) {
+                String dimension = options.world().relativize(regionFile.getParent().getParent()).toString();
+                scanFutures.add(executor.submit(() -> scan(regionFile, dimension.isEmpty() ? "overworld" : dimension, options)));
+            }
+            List<Scan> scans = new ArrayList<>();
+            Map<String, List<Block>> meetingPoints = new HashMap<>();
+            for (Future<Scan> future : scanFutures) {
+                Scan scan = future.get();
+                scans.add(scan);
+                meetingPoints.computeIfAbsent(scan.dimension, dimension -> new ArrayList<>()).addAll(scan.meetingPoints);
+            }
+
+            List<Future<Totals>> backfillFutures = new ArrayList<>();
+            for (Scan scan : scans) {
+                List<Block> dimensionMeetingPoints = meetingPoints.get(scan.dimension);
+                backfillFutures.add(executor.submit(() -> backfillRegion(scan, dimensionMeetingPoints, options)));
+            }
+            Map<String, Totals> totals = new TreeMap<>();
+            for (int i = 0; i < scans.size(); i++) {
+                totals.computeIfAbsent(scans.get(i).dimension, dimension -> new Totals()).add(backfillFutures.get(i).get());
+            }
+            return totals;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static Scan scan(Path regionFile, String dimension, Options options) throws IOException {
+        Map<String, String> blockTypes = POI_TYPES;
+        if (options.filtered()) {
+            blockTypes = new HashMap<>(POI_TYPES);
+            blockTypes.put(BELL, MEETING);
+        }
+
+        Scan scan = new Scan(regionFile, dimension);
+        for (Map.Entry<Integer, byte[]> entry : RegionFile.read(regionFile).payloads.entrySet()) {
+            Nbt.Compound chunk = RegionFile.readChunk(entry.getValue());
+            if (chunk == null) {
+                scan.skipped++;
+                continue;
+            }
+            scan.chunks++;
+            List<Block> jobSites = new ArrayList<>();
+            for (Block block : findBlocks(chunk, blockTypes)) {
+                (block.type().equals(MEETING) ? scan.meetingPoints : jobSites).add(block);
+            }
+            if (!jobSites.isEmpty()) {
+                scan.jobSites.put(entry.getKey(), jobSites);
+                Integer dataVersion = chunk.getInt("DataVersion");
+                scan.dataVersions.put(entry.getKey(), dataVersion == null ? 0 : dataVersion);
+            }
+        }
+
+        // Bells the game already indexed, the bell blocks themselves cover sections it didn't
+        if (options.filtered()) {
+            for (byte[] payload : RegionFile.read(getPoiFile(regionFile)).payloads.values()) {
+                Nbt.Compound poiChunk = RegionFile.readChunk(payload);
+                if (poiChunk != null) {
+                    forEachRecord(poiChunk, record -> {
+                        int[] pos = record.getIntArray("pos");
+                        if (MEETING.equals(record.getString("type")) && pos != null && pos.length == 3) {
+                            scan.meetingPoints.add(new Block(MEETING, pos[0], pos[1], pos[2]));
+                        }
+                    });
+                }
+            }
+        }
+        return scan;
+    }
+
+    private static Totals backfillRegion(Scan scan, List<Block> meetingPoints, Options options) throws IOException {
+        Totals totals = new Totals();
+        totals.regions = 1;
+        totals.chunks = scan.chunks;
+        totals.skipped = scan.skipped;
+        if (scan.jobSites.isEmpty()) return totals;
+
+        Path poiFile = getPoiFile(scan.regionFile);
+        RegionFile poiRegion = RegionFile.read(poiFile);
+        boolean changed = false;
+        for (Map.Entry<Integer, List<Block>> entry : scan.jobSites.entrySet()) {
+            List<Block> blocks = new ArrayList<>();
+            for (Block block : entry.getValue()) {
+                totals.blocks++;
+                totals.types.merge(block.type(), 1L, Long::sum);
+                if (options.filtered() && FILTERED_TYPES.contains(block.type())
+                        && meetingPoints.stream().noneMatch(meetingPoint -> meetingPoint.isNear(block, options.filteredRange()))) {
+                    totals.excluded++;
+                } else {
+                    blocks.add(block);
+                }
+            }
+            if (blocks.isEmpty()) continue;
+
+            byte[] payload = poiRegion.payloads.get(entry.getKey());
+            Nbt.Compound poiChunk;
+            if (payload != null) {
+                poiChunk = RegionFile.readChunk(payload);
+            } else {
+                poiChunk = new Nbt.Compound();
+                poiChunk.put("DataVersion", Nbt.INT, scan.dataVersions.get(entry.getKey()));
+            }
+            if (poiChunk == null) {
+                totals.skipped++;
+                continue;
+            }
+            if (addRecords(poiChunk, blocks, totals) == 0) continue;
+            poiRegion.payloads.put(entry.getKey(), RegionFile.writeChunk(poiChunk));
+            poiRegion.timestamps[entry.getKey()] = (int) (System.currentTimeMillis() / 1000L);
+            changed = true;
+        }
+        if (changed && !options.dryRun()) {
+            Files.createDirectories(poiFile.getParent());
+            poiRegion.write(poiFile);
+        }
+        return totals;
+    }
+
+    private static Path getPoiFile(Path regionFile) {
+        return regionFile.getParent().resolveSibling("poi").resolve(regionFile.getFileName());
+    }
+
+    // PalettedContainer.Strategy.SECTION_STATES#calculateBitsForSerialization. A single entry palette has no data,
+    // up to 16 entries take 4 bits and larger palettes just enough for their size. Past 256 entries the game packs
+    // states by global id in memory, but the saved palette is still a list that the data indexes into.
+    static int bitsForSerialization(int paletteSize) {
+        if (paletteSize <= 1) return 0;
+        return Math.max(4, 32 - Integer.numberOfLeadingZeros(paletteSize - 1));
+    }
+
+    // Every block of a chunk with a name in types, as that type at its world position
+    private static List<Block> findBlocks(Nbt.Compound chunk, Map<String, String> types) {
+        List<Block> found = new ArrayList<>();
+        Integer chunkX = chunk.getInt("xPos");
+        Integer chunkZ = chunk.getInt("zPos");
+        Nbt.ListTag sections = chunk.getList("sections");
+        if (chunkX == null || chunkZ == null || sections == null) return found;
+
+        for (Object element : sections.elements) {
+            if (!(element instanceof Nbt.Compound section)) continue;
+            Integer sectionY = section.getInt("Y");
+            Nbt.Compound states = section.getCompound("block_states");
+            Nbt.ListTag palette = states == null ? null : states.getList("palette");
+            if (sectionY == null || palette == null || palette.elements.isEmpty()) continue;
+
+            String[] paletteTypes = new String[palette.elements.size()];
+            boolean any = false;
+            for (int i = 0; i < paletteTypes.length; i++) {
+                if (palette.elements.get(i) instanceof Nbt.Compound state) {
+                    paletteTypes[i] = types.get(state.getString("Name"));
+                    any |= paletteTypes[i] != null;
+                }
+            }
+            if (!any) continue;
+
+            // Entries never span two longs
+            int bits = bitsForSerialization(paletteTypes.length);
+            long[] data = states.getLongArray("data");
+            int perLong = bits == 0 ? 0 : 64 / bits;
+            if (bits != 0 && (data == null || data.length < (4096 + perLong - 1) / perLong)) continue;
+            long mask = (1L << bits) - 1;
+            for (int i = 0; i < 4096; i++) {
+                int index = bits == 0 ? 0 : (int) (data[i / perLong] >>> (i % perLong) * bits & mask);
+                if (index < paletteTypes.length && paletteTypes[index] != null) {
+                    found.add(new Block(paletteTypes[index], chunkX * 16 + (i & 15), sectionY * 16 + (i >> 8), chunkZ * 16 + (i >> 4 & 15)));
+                }
+            }
+        }
+        return found;
+    }
+
+    private static void forEachRecord(Nbt.Compound poiChunk, Consumer<Nbt.Compound> action) {
+        Nbt.Compound sections = poiChunk.getCompound("Sections");
+        if (sections == null) return;
+        for (Nbt.Tag section : sections.tags.values()) {
+            Nbt.ListTag records = section.value() instanceof Nbt.Compound compound ? compound.getList("Records") : null;
+            if (records == null) continue;
+            for (Object record : records.elements) {
+                if (record instanceof Nbt.Compound compound) action.accept(compound);
+            }
+        }
+    }
+
+    // Returns the records added, counting them and the ones already there into totals
+    private static int addRecords(Nbt.Compound poiChunk, List<Block> blocks, Totals totals) {
+        Nbt.Compound sections = poiChunk.getCompound("Sections");
+        if (sections == null) {
+            sections = new Nbt.Compound();
+            poiChunk.put("Sections", Nbt.COMPOUND, sections);
+        }
+        int added = 0;
+        for (Block block : blocks) {
+            String key = Integer.toString(Math.floorDiv(block.y(), 16));
+            Nbt.Compound section = sections.getCompound(key);
+            if (section == null) {
+                section = new Nbt.Compound();
+                section.put("Valid", Nbt.BYTE, (byte) 0);
+                sections.put(key, Nbt.COMPOUND, section);
+                totals.created++;
+            }
+            Nbt.ListTag records = section.getList("Records");
+            if (records == null) {
+                records = new Nbt.ListTag(Nbt.COMPOUND, new ArrayList<>());
+                section.put("Records", Nbt.LIST, records);
+            }
+            records.elementType = Nbt.COMPOUND;
+
+            int[] pos = {block.x(), block.y(), block.z()};
+            if (records.elements.stream().anyMatch(record -> record instanceof Nbt.Compound compound
+                    && Arrays.equals(compound.getIntArray("pos"), pos))) {
+                totals.present++;
+                continue;
+            }
+            // All four types take a single villager
+            Nbt.Compound record = new Nbt.Compound();
+            record.put("pos", Nbt.INT_ARRAY, pos);
+            record.put("type", Nbt.STRING, block.type());
+            record.put("free_tickets", Nbt.INT, 1);
+            records.elements.add(record);
+            added++;
+        }
+        totals.added += added;
+        return added;
+    }
+
+    private static void printReport(Options options, Map<String, Totals> totals, int regions, double seconds) {
+        System.out.println("Config: " + options.configSource() + (options.filtered()
+                ? ", filteredJobSites within " + options.filteredRange() + " blocks of a meeting point" : ", filteredJobSites off"));
+        System.out.printf(Locale.ROOT, "%-24s %8s %8s %8s %8s %8s %8s %8s %8s%n", "Dimension", "Regions", "Chunks", "Skipped",
+                "Blocks", "Excluded", "Added", "Present", "Sections");
+        long chunks = 0;
+        for (Map.Entry<String, Totals> entry : totals.entrySet()) {
+            Totals total = entry.getValue();
+            chunks += total.chunks;
+            System.out.printf(Locale.ROOT, "%-24s %8d %8d %8d %8d %8d %8d %8d %8d%n", entry.getKey(), total.regions, total.chunks,
+                    total.skipped, total.blocks, total.excluded, total.added, total.present, total.created);
+            total.types.forEach((type, count) -> System.out.printf(Locale.ROOT, "  %-46s %8d%n", type, count));
+        }
+        System.out.printf(Locale.ROOT, "%s %d regions, %d chunks in %.1f s on %d threads, %.0f chunks/s%n",
+                options.dryRun() ? "Dry run, nothing written. Scanned" : "Backfilled", regions, chunks, seconds, options.threads(),
+                chunks / Math.max(seconds, 0.001D));
+    }
+}
@@ -0,0 +1,108 @@
+package com.sudolev.dynamicvillage.backfill;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * The raw chunk payloads and timestamps of one region file, read through a memory map. Written back from scratch to a
+ * temporary file that is then moved over the old one, so an interrupted run leaves the region as it was.
+ */
+final class RegionFile {
+    private static final int SECTOR = 4096;
+    private static final int CHUNKS = 1024;
+    private static final byte ZLIB = 2;
+
+    final Map<Integer, byte[]> payloads = new TreeMap<>();
+    final int[] timestamps = new int[CHUNKS];
+
+    static RegionFile read(Path file) throws IOException {
+        RegionFile region = new RegionFile();
+        if (!Files.isRegularFile(file) || Files.size(file) < 2 * SECTOR) return region;
+
+        try (FileChannel channel = FileChannel.open(file)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            for (int i = 0; i < CHUNKS; i++) {
+                int location = buffer.getInt(i * 4);
+                region.timestamps[i] = buffer.getInt(SECTOR + i * 4);
+                if (location == 0) continue;
+                long offset = (location >>> 8) * (long) SECTOR;
+                if (offset + 5 > buffer.capacity()) continue;
+                int length = buffer.getInt((int) offset);
+                if (length <= 0 || offset + 4 + length > buffer.capacity()) continue;
+                byte[] payload = new byte[length];
+                buffer.get((int) offset + 4, payload);
+                region.payloads.put(i, payload);
+            }
+        }
+        return region;
+    }
+
+    // Null for chunks stored in a separate .mcc file, those are left alone
+    static Nbt.Compound readChunk(byte[] payload) throws IOException {
+        InputStream stream = new ByteArrayInputStream(payload, 1, payload.length - 1);
+        switch (payload[0]) {
+            case 1 -> stream = new GZIPInputStream(stream);
+            case 2 -> stream = new InflaterInputStream(stream);
+            case 3 -> {
+            }
+            default -> {
+                return null;
+            }
+        }
+        return Nbt.readRoot(new BufferedInputStream(stream));
+    }
+
+    static byte[] writeChunk(Nbt.Compound chunk) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        bytes.write(ZLIB);
+        try (OutputStream stream = new DeflaterOutputStream(bytes)) {
+            Nbt.writeRoot(chunk, stream);
+        }
+        return bytes.toByteArray();
+    }
+
+    // Lays the chunks out again from the first sector after the header
+    void write(Path file) throws IOException {
+        int[] locations = new int[CHUNKS];
+        int sector = 2;
+        for (Map.Entry<Integer, byte[]> entry : payloads.entrySet()) {
+            int sectors = (entry.getValue().length + 4 + SECTOR - 1) / SECTOR;
+            if (sectors > 255) throw new IOException("Chunk " + entry.getKey() + " of " + file + " is too large for a region file");
+            locations[entry.getKey()] = sector << 8 | sectors;
+            sector += sectors;
+        }
+
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        try (DataOutputStream output = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+            for (int location : locations) {
+                output.writeInt(location);
+            }
+            for (int timestamp : timestamps) {
+                output.writeInt(timestamp);
+            }
+            for (Map.Entry<Integer, byte[]> entry : payloads.entrySet()) {
+                byte[] payload = entry.getValue();
+                output.writeInt(payload.length);
+                output.write(payload);
+                output.write(new byte[(locations[entry.getKey()] & 0xFF) * SECTOR - payload.length - 4]);
+            }
+        }
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+}
@@ -0,0 +1,99 @@
+package com.sudolev.dynamicvillage.benchmark;
+
+import net.minecraft.core.Holder;
+import net.minecraft.world.entity.ai.village.poi.PoiType;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * The job site predicates of our professions, tested against the points of interest a villager sees while it looks
+ * for work. Registry objects are replaced by a supplier with the same null check, holders are direct holders.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PoiPredicateBenchmark {
+    private static final int POI_TYPES = 24;
+    private static final int CANDIDATES = 256;
+
+    private static final class StubRegistryObject<T> implements Supplier<T> {
+        private final T value;
+
+        private StubRegistryObject(T value) {
+            this.value = value;
+        }
+
+        @Override
+        public T get() {
+            return Objects.requireNonNull(value, "Registry Object not present");
+        }
+    }
+
+    private Holder<PoiType>[] candidates;
+    private Predicate<Holder<PoiType>> registryObjectPredicate;
+    private Predicate<Holder<PoiType>> cachedValuePredicate;
+    private Predicate<Holder<PoiType>> cachedHolderPredicate;
+
+    @Setup
+    @SuppressWarnings("unchecked")
+    public void setUp() {
+        Holder<PoiType>[] holders = new Holder[POI_TYPES];
+        for (int i = 0; i < POI_TYPES; i++) {
+            holders[i] = Holder.direct(new PoiType(Set.of(), 1, 1));
+        }
+        candidates = new Holder[CANDIDATES];
+        for (int i = 0; i < CANDIDATES; i++) {
+            candidates[i] = holders[(i * 7) % POI_TYPES];
+        }
+
+        Holder<PoiType> jobSite = holders[0];
+        Supplier<PoiType> registryObject = new StubRegistryObject<>(jobSite.value());
+        PoiType cachedValue = jobSite.value();
+        // Same shape as the predicates in ModVillagers
+        registryObjectPredicate = x -> x.get() == registryObject.get();
+        cachedValuePredicate = x -> x.value() == cachedValue;
+        cachedHolderPredicate = x -> x == jobSite;
+    }
+
+    private static int count(Holder<PoiType>[] candidates, Predicate<Holder<PoiType>> predicate) {
+        int matches = 0;
+        for (Holder<PoiType> candidate : candidates) {
+            if (predicate.test(candidate)) {
+                matches++;
+            }
+        }
+        return matches;
+    }
+
+    @Benchmark
+    public int registryObjectPredicate() {
+        return count(candidates, registryObjectPredicate);
+    }
+
+    @Benchmark
+    public int cachedValuePredicate() {
+        return count(candidates, cachedValuePredicate);
+    }
+
+    @Benchmark
+    public int cachedHolderPredicate() {
+        return count(candidates, cachedHolderPredicate);
+    }
+}
@@ -0,0 +1,86 @@
+package com.sudolev.dynamicvillage.benchmark;
+
+import com.mojang.datafixers.util.Pair;
+import com.sudolev.dynamicvillage.village.WeightedTemplateSampler;
+import it.unimi.dsi.fastutil.objects.ObjectArrayList;
+import net.minecraft.Util;
+import net.minecraft.util.RandomSource;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Draws from a pool shaped like {@code village/plains/houses} with our four buildings injected, once through the
+ * duplicated template list vanilla samples and once through {@link WeightedTemplateSampler}. Elements are plain
+ * objects, the sampler only compares them by identity.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PoolSamplingBenchmark {
+    // Weights of the vanilla plains houses pool, the last entry is the empty element
+    private static final int[] PLAINS_HOUSES = {2, 2, 2, 2, 2, 1, 2, 3, 2, 2, 2, 2, 2, 2, 2, 2, 2, 2, 2, 1, 5, 1, 2, 2, 2,
+            2, 2, 2, 4, 4, 1, 1, 5, 1, 3, 1, 10};
+
+    @Param({"20"})
+    public int injectedWeight;
+
+    private ObjectArrayList<Object> templates;
+    private WeightedTemplateSampler<Object> sampler;
+    private RandomSource random;
+
+    @Setup
+    public void setUp() {
+        List<Pair<Object, Integer>> rawTemplates = new ArrayList<>();
+        for (int weight : PLAINS_HOUSES) {
+            rawTemplates.add(Pair.of(new Object(), weight));
+        }
+        for (int i = 0; i < 4; i++) {
+            rawTemplates.add(Pair.of(new Object(), injectedWeight));
+        }
+
+        templates = new ObjectArrayList<>();
+        for (Pair<Object, Integer> entry : rawTemplates) {
+            for (int i = 0; i < entry.getSecond(); i++) {
+                templates.add(entry.getFirst());
+            }
+        }
+        sampler = new WeightedTemplateSampler<>(rawTemplates, templates);
+        random = RandomSource.create(42L);
+    }
+
+    @Benchmark
+    public Object duplicatedListSample() {
+        return templates.get(random.nextInt(templates.size()));
+    }
+
+    @Benchmark
+    public Object weightedSample() {
+        return sampler.sample(random);
+    }
+
+    @Benchmark
+    public List<Object> duplicatedListShuffle() {
+        return Util.shuffledCopy(templates, random);
+    }
+
+    @Benchmark
+    public List<Object> weightedShuffle() {
+        return sampler.shuffled(random);
+    }
+}
@@ -0,0 +1,124 @@
+package com.sudolev.dynamicvillage.benchmark;
+
+import com.sudolev.dynamicvillage.villager.ProfessionTrades;
+import it.unimi.dsi.fastutil.ints.Int2ObjectMap;
+import it.unimi.dsi.fastutil.ints.Int2ObjectOpenHashMap;
+import net.minecraft.util.RandomSource;
+import net.minecraft.world.entity.npc.VillagerTrades;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Trade tables with the shape of our four professions and listings that return no offer. A real offer copies item
+ * stacks, which needs the item registry, so this covers building the trades of every profession at server start and
+ * picking the listings a villager rolls when it levels up.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TradeTableBenchmark {
+    // Vanilla professions plus ours, one VillagerTradesEvent is posted for each of them
+    private static final int PROFESSIONS = 19;
+    private static final int[][] TRADES_PER_LEVEL = {{4, 3, 3, 3, 3}, {5, 6, 2, 3, 4}, {5, 4, 3, 2, 3}, {3, 3, 4, 2, 3}};
+    private static final VillagerTrades.ItemListing NO_OFFER = (trader, random) -> null;
+
+    private Object[] professions;
+    private Object[] ourProfessions;
+    private ProfessionTrades[] tables;
+    private Map<Object, ProfessionTrades> tablesByProfession;
+    private RandomSource random;
+
+    @Setup
+    public void setUp() {
+        professions = new Object[PROFESSIONS];
+        for (int i = 0; i < PROFESSIONS; i++) {
+            professions[i] = new Object();
+        }
+        ourProfessions = new Object[TRADES_PER_LEVEL.length];
+        tables = new ProfessionTrades[TRADES_PER_LEVEL.length];
+        tablesByProfession = new IdentityHashMap<>();
+        for (int i = 0; i < TRADES_PER_LEVEL.length; i++) {
+            ProfessionTrades.Builder builder = ProfessionTrades.builder();
+            for (int level = 1; level <= 5; level++) {
+                for (int j = 0; j < TRADES_PER_LEVEL[i][level - 1]; j++) {
+                    builder.add(level, NO_OFFER);
+                }
+            }
+            ourProfessions[i] = professions[PROFESSIONS - 1 - i];
+            tables[i] = builder.build();
+            tablesByProfession.put(ourProfessions[i], tables[i]);
+        }
+        random = RandomSource.create(42L);
+    }
+
+    private static Int2ObjectMap<List<VillagerTrades.ItemListing>> emptyTrades() {
+        Int2ObjectMap<List<VillagerTrades.ItemListing>> trades = new Int2ObjectOpenHashMap<>();
+        for (int level = 1; level <= 5; level++) {
+            trades.put(level, new ArrayList<>());
+        }
+        return trades;
+    }
+
+    // One subscriber per profession, each checking the profession of every event
+    @Benchmark
+    public void buildTradesPerSubscriber(Blackhole blackhole) {
+        for (Object profession : professions) {
+            Int2ObjectMap<List<VillagerTrades.ItemListing>> trades = emptyTrades();
+            for (int i = 0; i < ourProfessions.length; i++) {
+                if (profession == ourProfessions[i]) {
+                    tables[i].addTo(trades);
+                }
+            }
+            blackhole.consume(trades);
+        }
+    }
+
+    @Benchmark
+    public void buildTradesIndexed(Blackhole blackhole) {
+        for (Object profession : professions) {
+            Int2ObjectMap<List<VillagerTrades.ItemListing>> trades = emptyTrades();
+            ProfessionTrades table = tablesByProfession.get(profession);
+            if (table != null) {
+                table.addTo(trades);
+            }
+            blackhole.consume(trades);
+        }
+    }
+
+    // Same selection as AbstractVillager.addOffersFromItemListings for a villager reaching level 2
+    @Benchmark
+    public int rollLevel() {
+        VillagerTrades.ItemListing[] listings = tables[1].getTrades(2);
+        Set<Integer> picked = new HashSet<>();
+        while (picked.size() < 2) {
+            picked.add(random.nextInt(listings.length));
+        }
+        int offers = 0;
+        for (int index : picked) {
+            if (listings[index].getOffer(null, random) != null) {
+                offers++;
+            }
+        }
+        return offers + picked.size();
+    }
+}
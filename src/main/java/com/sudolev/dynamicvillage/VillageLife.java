@@ -1,11 +1,24 @@
 package com.sudolev.dynamicvillage;
 
+import com.jozufozu.flywheel.backend.instancing.InstancedRenderRegistry;
+import com.sudolev.dynamicvillage.client.VillagerAtlas;
+import com.sudolev.dynamicvillage.client.VillagerInstance;
+import com.sudolev.dynamicvillage.config.ModClientConfigs;
+import com.sudolev.dynamicvillage.config.ModCommonConfigs;
+import com.sudolev.dynamicvillage.network.ModNetwork;
+import com.sudolev.dynamicvillage.village.ModPoolElementTypes;
+import com.sudolev.dynamicvillage.village.ModStructureProcessors;
 import com.sudolev.dynamicvillage.villager.ModVillagers;
+import net.minecraft.client.Minecraft;
+import net.minecraft.world.entity.EntityType;
 import net.minecraftforge.api.distmarker.Dist;
+import net.minecraftforge.client.event.RegisterClientReloadListenersEvent;
 import net.minecraftforge.common.MinecraftForge;
 import net.minecraftforge.eventbus.api.IEventBus;
 import net.minecraftforge.eventbus.api.SubscribeEvent;
+import net.minecraftforge.fml.ModLoadingContext;
 import net.minecraftforge.fml.common.Mod;
+import net.minecraftforge.fml.config.ModConfig;
 import net.minecraftforge.fml.event.lifecycle.FMLClientSetupEvent;
 import net.minecraftforge.fml.event.lifecycle.FMLCommonSetupEvent;
 import net.minecraftforge.event.server.ServerStartingEvent;
@@ -24,11 +37,17 @@ public class VillageLife
         modEventBus.addListener(this::commonSetup);
 
         ModVillagers.register(modEventBus);
+        ModStructureProcessors.register(modEventBus);
+        ModPoolElementTypes.register(modEventBus);
+
+        ModLoadingContext.get().registerConfig(ModConfig.Type.COMMON, ModCommonConfigs.SPEC, "dynamicvillage-common.toml");
+        ModLoadingContext.get().registerConfig(ModConfig.Type.CLIENT, ModClientConfigs.SPEC, "dynamicvillage-client.toml");
 
         MinecraftForge.EVENT_BUS.register(this);    }
 
     private void commonSetup(final FMLCommonSetupEvent event) {
         event.enqueueWork(ModVillagers::registerPOIs);
+        ModNetwork.register();
     }
     // You can use SubscribeEvent and let the Event Bus discover methods to call
     @SubscribeEvent
@@ -43,6 +62,16 @@ public class VillageLife
         @SubscribeEvent
         public static void onClientSetup(FMLClientSetupEvent event)
         {
+            InstancedRenderRegistry.configure(EntityType.VILLAGER)
+                    .factory(VillagerInstance::new)
+                    .skipRender(VillagerInstance::shouldInstance)
+                    .apply();
+        }
+
+        @SubscribeEvent
+        public static void onRegisterReloadListeners(RegisterClientReloadListenersEvent event)
+        {
+            event.registerReloadListener(new VillagerAtlas(Minecraft.getInstance().getTextureManager()));
         }
     }
 }
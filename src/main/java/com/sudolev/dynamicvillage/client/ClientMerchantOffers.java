@@ -0,0 +1,68 @@
+package com.sudolev.dynamicvillage.client;
+
+import com.sudolev.dynamicvillage.VillageLife;
+import com.sudolev.dynamicvillage.network.MerchantOffersDeltaPacket;
+import com.sudolev.dynamicvillage.network.ModNetwork;
+import com.sudolev.dynamicvillage.network.RequestOffersPacket;
+import net.minecraft.client.Minecraft;
+import net.minecraft.world.inventory.MerchantMenu;
+import net.minecraft.world.item.trading.MerchantOffers;
+import net.minecraftforge.api.distmarker.Dist;
+import net.minecraftforge.client.event.ClientPlayerNetworkEvent;
+import net.minecraftforge.eventbus.api.SubscribeEvent;
+import net.minecraftforge.fml.common.Mod;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+
+// Offer lists of the villagers we traded with, by villager, to apply the server's deltas to
+@Mod.EventBusSubscriber(modid = VillageLife.MODID, value = Dist.CLIENT)
+public class ClientMerchantOffers {
+    // Larger than the server side, so the server forgets a villager before we do
+    private static final int CACHED_VILLAGERS = 128;
+
+    private record Cached(int version, MerchantOffers offers) {
+    }
+
+    private static final Map<UUID, Cached> cache = new LinkedHashMap<>(16, 0.75F, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<UUID, Cached> eldest) {
+            return size() > CACHED_VILLAGERS;
+        }
+    };
+
+    public static void handle(MerchantOffersDeltaPacket packet) {
+        MerchantOffers base;
+        if (packet.getBaseVersion() == MerchantOffersDeltaPacket.FULL) {
+            base = new MerchantOffers();
+        } else {
+            Cached cached = cache.get(packet.getVillager());
+            if (cached == null || cached.version() != packet.getBaseVersion()) {
+                cache.remove(packet.getVillager());
+                ModNetwork.CHANNEL.sendToServer(new RequestOffersPacket(packet.getVillager()));
+                return;
+            }
+            base = cached.offers();
+        }
+
+        MerchantOffers offers = packet.apply(base);
+        cache.put(packet.getVillager(), new Cached(packet.getVersion(), offers));
+
+        Minecraft minecraft = Minecraft.getInstance();
+        if (minecraft.player != null && minecraft.player.containerMenu instanceof MerchantMenu menu
+                && menu.containerId == packet.getContainerId()) {
+            // The menu uses up offers as the player trades, the cached ones have to stay as the server sent them
+            menu.setOffers(new MerchantOffers(offers.createTag()));
+            menu.setXp(packet.getVillagerXp());
+            menu.setMerchantLevel(packet.getVillagerLevel());
+            menu.setShowProgressBar(packet.showProgress());
+            menu.setCanRestock(packet.canRestock());
+        }
+    }
+
+    @SubscribeEvent
+    public static void onLoggingOut(final ClientPlayerNetworkEvent.LoggingOut event) {
+        cache.clear();
+    }
+}
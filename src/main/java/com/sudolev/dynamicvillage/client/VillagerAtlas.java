@@ -0,0 +1,68 @@
+package com.sudolev.dynamicvillage.client;
+
+import com.sudolev.dynamicvillage.VillageLife;
+import com.sudolev.dynamicvillage.villager.ModVillagers;
+import net.minecraft.client.renderer.texture.TextureAtlasSprite;
+import net.minecraft.client.renderer.texture.TextureManager;
+import net.minecraft.client.resources.TextureAtlasHolder;
+import net.minecraft.core.Registry;
+import net.minecraft.resources.ResourceLocation;
+import net.minecraft.util.Mth;
+import net.minecraft.world.entity.npc.VillagerProfession;
+import net.minecraft.world.entity.npc.VillagerType;
+import net.minecraftforge.registries.ForgeRegistries;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Stitches the villager skin, the biome types, our professions and the level badges into one atlas, so all layers of
+ * instanced villagers share a render type. Sprites are named like the vanilla textures under {@code entity/villager}.
+ */
+public class VillagerAtlas extends TextureAtlasHolder {
+    public static final ResourceLocation LOCATION = new ResourceLocation(VillageLife.MODID, "textures/atlas/villagers.png");
+    private static final ResourceLocation VILLAGER = new ResourceLocation("villager");
+    private static final List<ResourceLocation> LEVELS = Stream.of("stone", "iron", "gold", "emerald", "diamond")
+            .map(ResourceLocation::new).toList();
+
+    private static VillagerAtlas instance;
+
+    public VillagerAtlas(TextureManager textureManager) {
+        super(textureManager, LOCATION, "entity/villager");
+        instance = this;
+    }
+
+    public static VillagerAtlas get() {
+        return instance;
+    }
+
+    @Override
+    protected Stream<ResourceLocation> getResourcesToLoad() {
+        Stream<ResourceLocation> professions = Stream.of(ModVillagers.MECHANICAL_ENGINEER, ModVillagers.HYDRAULIC_ENGINEER,
+                ModVillagers.TRAIN_MECHANIC, ModVillagers.MINER).map(profession -> withFolder("profession", profession.getId()));
+        return Stream.of(Stream.of(VILLAGER),
+                Registry.VILLAGER_TYPE.keySet().stream().map(type -> withFolder("type", type)),
+                professions,
+                LEVELS.stream().map(level -> withFolder("profession_level", level))).flatMap(stream -> stream);
+    }
+
+    private static ResourceLocation withFolder(String folder, ResourceLocation id) {
+        return new ResourceLocation(id.getNamespace(), folder + "/" + id.getPath());
+    }
+
+    public TextureAtlasSprite getVillager() {
+        return getSprite(VILLAGER);
+    }
+
+    public TextureAtlasSprite getType(VillagerType type) {
+        return getSprite(withFolder("type", Registry.VILLAGER_TYPE.getKey(type)));
+    }
+
+    public TextureAtlasSprite getProfession(VillagerProfession profession) {
+        return getSprite(withFolder("profession", ForgeRegistries.VILLAGER_PROFESSIONS.getKey(profession)));
+    }
+
+    public TextureAtlasSprite getLevel(int level) {
+        return getSprite(withFolder("profession_level", LEVELS.get(Mth.clamp(level, 1, LEVELS.size()) - 1)));
+    }
+}
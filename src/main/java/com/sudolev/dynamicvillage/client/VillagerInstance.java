@@ -0,0 +1,204 @@
+package com.sudolev.dynamicvillage.client;
+
+import com.jozufozu.flywheel.api.Material;
+import com.jozufozu.flywheel.api.MaterialManager;
+import com.jozufozu.flywheel.api.instance.DynamicInstance;
+import com.jozufozu.flywheel.backend.Backend;
+import com.jozufozu.flywheel.backend.instancing.entity.EntityInstance;
+import com.jozufozu.flywheel.core.Materials;
+import com.jozufozu.flywheel.core.materials.model.ModelData;
+import com.jozufozu.flywheel.util.AnimationTickHolder;
+import com.mojang.blaze3d.vertex.PoseStack;
+import com.mojang.math.Vector3f;
+import com.sudolev.dynamicvillage.config.ModClientConfigs;
+import com.sudolev.dynamicvillage.villager.ModVillagers;
+import net.minecraft.client.renderer.RenderType;
+import net.minecraft.client.renderer.texture.TextureAtlasSprite;
+import net.minecraft.core.BlockPos;
+import net.minecraft.util.Mth;
+import net.minecraft.world.entity.EquipmentSlot;
+import net.minecraft.world.entity.npc.Villager;
+import net.minecraft.world.entity.npc.VillagerData;
+import net.minecraft.world.entity.npc.VillagerProfession;
+import net.minecraft.world.entity.npc.VillagerType;
+import net.minecraft.world.level.LightLayer;
+
+import javax.annotation.Nullable;
+import java.util.Objects;
+
+/**
+ * Draws a villager of one of our professions as instanced model parts: the skin, biome, profession and level layers of
+ * {@link VillagerAtlas}, each as the same ten parts. Follows {@code VillagerModel} and {@code LivingEntityRenderer}
+ * for the pose; anything those renderers do beyond walking, looking around and head shaking is left to vanilla by
+ * {@link #shouldInstance}.
+ */
+public class VillagerInstance extends EntityInstance<Villager> implements DynamicInstance {
+    private static final float SCALE = 0.9375F;
+    private static final VillagerModelParts[] SLOTS = {VillagerModelParts.HEAD, VillagerModelParts.HAT, VillagerModelParts.HAT_RIM,
+            VillagerModelParts.BODY, VillagerModelParts.JACKET, VillagerModelParts.ARM, VillagerModelParts.ARM,
+            VillagerModelParts.CROSSED_ARMS, VillagerModelParts.LEG, VillagerModelParts.LEG};
+    private static final int HEAD = 0;
+    private static final int HAT = 1;
+    private static final int HAT_RIM = 2;
+    private static final int BODY = 3;
+    private static final int JACKET = 4;
+    private static final int RIGHT_ARM = 5;
+    private static final int LEFT_ARM = 6;
+    private static final int CROSSED_ARMS = 7;
+    private static final int RIGHT_LEG = 8;
+    private static final int LEFT_LEG = 9;
+    private static final ModelData[][] NO_LAYERS = new ModelData[0][];
+
+    private record Appearance(VillagerType type, VillagerProfession profession, int level) {
+    }
+
+    private record ModelKey(VillagerModelParts part, TextureAtlasSprite sprite) {
+    }
+
+    private final PoseStack stack = new PoseStack();
+    @Nullable
+    private Appearance appearance;
+    private ModelData[][] layers = NO_LAYERS;
+
+    public VillagerInstance(MaterialManager materialManager, Villager villager) {
+        super(materialManager, villager);
+    }
+
+    public static boolean shouldInstance(Villager villager) {
+        return ModClientConfigs.INSTANCED_VILLAGERS.get() && Backend.canUseInstancing(villager.level)
+                && ModVillagers.isCreateProfession(villager.getVillagerData().getProfession())
+                && !villager.isBaby() && !villager.isInvisible() && !villager.isPassenger() && !villager.isSleeping()
+                && villager.hurtTime <= 0 && villager.deathTime <= 0 && !villager.isFullyFrozen() && !villager.displayFireAnimation()
+                && !villager.isCurrentlyGlowing()
+                && !villager.hasCustomName() && villager.getMainHandItem().isEmpty() && villager.getItemBySlot(EquipmentSlot.HEAD).isEmpty();
+    }
+
+    @Override
+    public void beginFrame() {
+        if (!shouldInstance(entity)) {
+            setAppearance(null);
+            return;
+        }
+        VillagerData data = entity.getVillagerData();
+        setAppearance(new Appearance(data.getType(), data.getProfession(), data.getLevel()));
+
+        float partialTicks = AnimationTickHolder.getPartialTicks();
+        float bodyYaw = Mth.rotLerp(partialTicks, entity.yBodyRotO, entity.yBodyRot);
+        float headYaw = Mth.rotLerp(partialTicks, entity.yHeadRotO, entity.yHeadRot) - bodyYaw;
+        float headXRot = Mth.lerp(partialTicks, entity.xRotO, entity.getXRot()) * Mth.DEG_TO_RAD;
+        float headZRot = 0.0F;
+        if (entity.getUnhappyCounter() > 0) {
+            headZRot = 0.3F * Mth.sin(0.45F * (entity.tickCount + partialTicks));
+            headXRot = 0.4F;
+        }
+        float limbSwingAmount = Math.min(Mth.lerp(partialTicks, entity.animationSpeedOld, entity.animationSpeed), 1.0F);
+        float limbSwing = entity.animationPosition - entity.animationSpeed * (1.0F - partialTicks);
+        float legXRot = Mth.cos(limbSwing * 0.6662F) * 1.4F * limbSwingAmount * 0.5F;
+
+        Vector3f pos = getInstancePosition(partialTicks);
+        stack.pushPose();
+        stack.translate(pos.x(), pos.y(), pos.z());
+        stack.mulPose(Vector3f.YP.rotationDegrees(180.0F - bodyYaw));
+        stack.scale(-1.0F, -1.0F, 1.0F);
+        stack.scale(SCALE, SCALE, SCALE);
+        stack.translate(0.0D, -1.501F, 0.0D);
+
+        stack.pushPose();
+        stack.mulPose(Vector3f.ZP.rotation(headZRot));
+        stack.mulPose(Vector3f.YP.rotation(headYaw * Mth.DEG_TO_RAD));
+        stack.mulPose(Vector3f.XP.rotation(headXRot));
+        setTransform(HEAD);
+        stack.pushPose();
+        stack.mulPose(Vector3f.XP.rotation(-Mth.HALF_PI));
+        setTransform(HAT_RIM);
+        stack.popPose();
+        // Cube deformation of 0.51
+        inflate(0.0F, -5.0F, 0.0F, 8.0F, 10.0F, 8.0F, 0.51F);
+        setTransform(HAT);
+        stack.popPose();
+
+        setTransform(BODY);
+        stack.pushPose();
+        inflate(0.0F, 10.0F, 0.0F, 8.0F, 20.0F, 6.0F, 0.5F);
+        setTransform(JACKET);
+        stack.popPose();
+
+        stack.pushPose();
+        stack.translate(0.0F, 3.0F / 16.0F, -1.0F / 16.0F);
+        stack.mulPose(Vector3f.XP.rotation(-0.75F));
+        setTransform(RIGHT_ARM);
+        setTransform(CROSSED_ARMS);
+        stack.scale(-1.0F, 1.0F, 1.0F);
+        setTransform(LEFT_ARM);
+        stack.popPose();
+
+        setLegTransform(RIGHT_LEG, -2.0F, legXRot);
+        setLegTransform(LEFT_LEG, 2.0F, -legXRot);
+        stack.popPose();
+
+        BlockPos lightPos = new BlockPos(entity.getLightProbePosition(partialTicks));
+        int blockLight = world.getBrightness(LightLayer.BLOCK, lightPos);
+        int skyLight = world.getBrightness(LightLayer.SKY, lightPos);
+        for (ModelData[] layer : layers) {
+            for (ModelData part : layer) {
+                part.setBlockLight(blockLight).setSkyLight(skyLight);
+            }
+        }
+    }
+
+    // Scales a cube around its center so it grows by the deformation on every side, which is what vanilla does to the vertices
+    private void inflate(float centerX, float centerY, float centerZ, float sizeX, float sizeY, float sizeZ, float deformation) {
+        stack.translate(centerX / 16.0F, centerY / 16.0F, centerZ / 16.0F);
+        stack.scale((sizeX + 2 * deformation) / sizeX, (sizeY + 2 * deformation) / sizeY, (sizeZ + 2 * deformation) / sizeZ);
+        stack.translate(-centerX / 16.0F, -centerY / 16.0F, -centerZ / 16.0F);
+    }
+
+    // The left leg is the right one mirrored, like the mirrored cube of the vanilla model
+    private void setLegTransform(int slot, float x, float xRot) {
+        stack.pushPose();
+        stack.translate(x / 16.0F, 12.0F / 16.0F, 0.0F);
+        stack.mulPose(Vector3f.XP.rotation(xRot));
+        if (slot == LEFT_LEG) {
+            stack.scale(-1.0F, 1.0F, 1.0F);
+        }
+        setTransform(slot);
+        stack.popPose();
+    }
+
+    private void setTransform(int slot) {
+        for (ModelData[] layer : layers) {
+            layer[slot].setTransform(stack);
+        }
+    }
+
+    private void setAppearance(@Nullable Appearance appearance) {
+        if (Objects.equals(this.appearance, appearance)) return;
+        remove();
+        this.appearance = appearance;
+        if (appearance == null) return;
+
+        VillagerAtlas atlas = VillagerAtlas.get();
+        TextureAtlasSprite[] sprites = {atlas.getVillager(), atlas.getType(appearance.type()), atlas.getProfession(appearance.profession()),
+                atlas.getLevel(appearance.level())};
+        Material<ModelData> material = materialManager.cutout(RenderType.entityCutoutNoCull(VillagerAtlas.LOCATION))
+                .material(Materials.TRANSFORMED);
+        layers = new ModelData[sprites.length][SLOTS.length];
+        for (int layer = 0; layer < sprites.length; layer++) {
+            TextureAtlasSprite sprite = sprites[layer];
+            for (int slot = 0; slot < SLOTS.length; slot++) {
+                VillagerModelParts part = SLOTS[slot];
+                layers[layer][slot] = material.model(new ModelKey(part, sprite), () -> part.build(sprite)).createInstance();
+            }
+        }
+    }
+
+    @Override
+    protected void remove() {
+        for (ModelData[] layer : layers) {
+            for (ModelData part : layer) {
+                part.delete();
+            }
+        }
+        layers = NO_LAYERS;
+    }
+}
@@ -0,0 +1,79 @@
+package com.sudolev.dynamicvillage.client;
+
+import com.jozufozu.flywheel.core.hardcoded.ModelPart;
+import net.minecraft.client.renderer.texture.TextureAtlasSprite;
+
+/**
+ * The cubes of the vanilla villager model as Flywheel models, one per texture layer. Inflated cubes (hat, jacket) and
+ * mirrored limbs are built plain here; the instance scales them, which gives the same vertices and UVs as vanilla.
+ */
+public enum VillagerModelParts {
+    // Nose included, it never moves against the head
+    HEAD {
+        @Override
+        ModelPart build(TextureAtlasSprite sprite) {
+            return ModelPart.builder("villager_head", 64, 64).sprite(sprite)
+                    .cuboid().textureOffset(0, 0).start(-4, -10, -4).size(8, 10, 8).endCuboid()
+                    .cuboid().textureOffset(24, 0).start(-1, -3, -6).size(2, 4, 2).endCuboid()
+                    .build();
+        }
+    },
+    HAT {
+        @Override
+        ModelPart build(TextureAtlasSprite sprite) {
+            return ModelPart.builder("villager_hat", 64, 64).sprite(sprite)
+                    .cuboid().textureOffset(32, 0).start(-4, -10, -4).size(8, 10, 8).endCuboid()
+                    .build();
+        }
+    },
+    HAT_RIM {
+        @Override
+        ModelPart build(TextureAtlasSprite sprite) {
+            return ModelPart.builder("villager_hat_rim", 64, 64).sprite(sprite)
+                    .cuboid().textureOffset(30, 47).start(-8, -8, -6).size(16, 16, 1).endCuboid()
+                    .build();
+        }
+    },
+    BODY {
+        @Override
+        ModelPart build(TextureAtlasSprite sprite) {
+            return ModelPart.builder("villager_body", 64, 64).sprite(sprite)
+                    .cuboid().textureOffset(16, 20).start(-4, 0, -3).size(8, 12, 6).endCuboid()
+                    .build();
+        }
+    },
+    JACKET {
+        @Override
+        ModelPart build(TextureAtlasSprite sprite) {
+            return ModelPart.builder("villager_jacket", 64, 64).sprite(sprite)
+                    .cuboid().textureOffset(0, 38).start(-4, 0, -3).size(8, 20, 6).endCuboid()
+                    .build();
+        }
+    },
+    ARM {
+        @Override
+        ModelPart build(TextureAtlasSprite sprite) {
+            return ModelPart.builder("villager_arm", 64, 64).sprite(sprite)
+                    .cuboid().textureOffset(44, 22).start(-8, -2, -2).size(4, 8, 4).endCuboid()
+                    .build();
+        }
+    },
+    CROSSED_ARMS {
+        @Override
+        ModelPart build(TextureAtlasSprite sprite) {
+            return ModelPart.builder("villager_crossed_arms", 64, 64).sprite(sprite)
+                    .cuboid().textureOffset(40, 38).start(-4, 2, -2).size(8, 4, 4).endCuboid()
+                    .build();
+        }
+    },
+    LEG {
+        @Override
+        ModelPart build(TextureAtlasSprite sprite) {
+            return ModelPart.builder("villager_leg", 64, 64).sprite(sprite)
+                    .cuboid().textureOffset(0, 22).start(-2, 0, -2).size(4, 12, 4).endCuboid()
+                    .build();
+        }
+    };
+
+    abstract ModelPart build(TextureAtlasSprite sprite);
+}
@@ -0,0 +1,234 @@
+package com.sudolev.dynamicvillage.client;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonObject;
+import com.mojang.brigadier.arguments.IntegerArgumentType;
+import com.mojang.logging.LogUtils;
+import com.sudolev.dynamicvillage.VillageLife;
+import com.sudolev.dynamicvillage.config.ModClientConfigs;
+import com.sudolev.dynamicvillage.villager.ModVillagers;
+import it.unimi.dsi.fastutil.longs.LongArrayList;
+import net.minecraft.client.Minecraft;
+import net.minecraft.commands.CommandSourceStack;
+import net.minecraft.commands.Commands;
+import net.minecraft.core.BlockPos;
+import net.minecraft.network.chat.Component;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.server.level.ServerPlayer;
+import net.minecraft.util.Mth;
+import net.minecraft.world.entity.EntityType;
+import net.minecraft.world.entity.MobSpawnType;
+import net.minecraft.world.entity.npc.Villager;
+import net.minecraft.world.entity.npc.VillagerData;
+import net.minecraft.world.entity.npc.VillagerProfession;
+import net.minecraft.world.entity.npc.VillagerType;
+import net.minecraft.world.phys.Vec3;
+import net.minecraftforge.api.distmarker.Dist;
+import net.minecraftforge.client.event.RegisterClientCommandsEvent;
+import net.minecraftforge.event.TickEvent;
+import net.minecraftforge.eventbus.api.SubscribeEvent;
+import net.minecraftforge.fml.common.Mod;
+import net.minecraftforge.fml.loading.FMLPaths;
+import net.minecraftforge.registries.RegistryObject;
+import org.slf4j.Logger;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@code /dynamicvillage_client benchmark <villagers> <seconds>} builds a trading hall scene in front of the player,
+ * then records frame times with instanced villagers and with the vanilla renderer for the given seconds each. Results go
+ * to chat and to {@code dynamicvillage/benchmarks} in the game directory. Singleplayer only, the scene is spawned on the
+ * integrated server and removed again afterwards.
+ */
+@Mod.EventBusSubscriber(modid = VillageLife.MODID, value = Dist.CLIENT)
+public class VillagerRenderBenchmark {
+    private static final Logger LOGGER = LogUtils.getLogger();
+    private static final Gson GSON = new GsonBuilder().setPrettyPrinting().create();
+    private static final String TAG = VillageLife.MODID + "_benchmark";
+    private static final long WARMUP_NANOS = TimeUnit.SECONDS.toNanos(3);
+    private static final List<RegistryObject<VillagerProfession>> PROFESSIONS = List.of(ModVillagers.MECHANICAL_ENGINEER,
+            ModVillagers.HYDRAULIC_ENGINEER, ModVillagers.TRAIN_MECHANIC, ModVillagers.MINER);
+
+    private enum Phase {
+        WARMUP_INSTANCED(true), INSTANCED(true), WARMUP_VANILLA(false), VANILLA(false);
+
+        private final boolean instanced;
+
+        Phase(boolean instanced) {
+            this.instanced = instanced;
+        }
+    }
+
+    private static Run run;
+
+    private static class Run {
+        private final CommandSourceStack source;
+        private final int villagers;
+        private final long phaseNanos;
+        private final boolean instancedBefore;
+        private final LongArrayList instancedFrames = new LongArrayList();
+        private final LongArrayList vanillaFrames = new LongArrayList();
+        private Phase phase = Phase.WARMUP_INSTANCED;
+        private long phaseStart = System.nanoTime();
+        private long lastFrame;
+
+        private Run(CommandSourceStack source, int villagers, int seconds) {
+            this.source = source;
+            this.villagers = villagers;
+            this.phaseNanos = TimeUnit.SECONDS.toNanos(seconds);
+            this.instancedBefore = ModClientConfigs.INSTANCED_VILLAGERS.get();
+        }
+    }
+
+    @SubscribeEvent
+    public static void registerCommands(final RegisterClientCommandsEvent event) {
+        event.getDispatcher().register(Commands.literal(VillageLife.MODID + "_client")
+                .then(Commands.literal("benchmark")
+                        .then(Commands.argument("villagers", IntegerArgumentType.integer(1, 4096))
+                                .then(Commands.argument("seconds", IntegerArgumentType.integer(1, 600))
+                                        .executes(context -> start(context.getSource(), IntegerArgumentType.getInteger(context, "villagers"),
+                                                IntegerArgumentType.getInteger(context, "seconds")))))));
+    }
+
+    private static int start(CommandSourceStack source, int villagers, int seconds) {
+        Minecraft minecraft = Minecraft.getInstance();
+        if (run != null) {
+            source.sendFailure(Component.literal("A villager render benchmark is already running"));
+            return 0;
+        }
+        if (minecraft.getSingleplayerServer() == null || minecraft.player == null) {
+            source.sendFailure(Component.literal("The villager render benchmark only runs in singleplayer"));
+            return 0;
+        }
+
+        UUID playerId = minecraft.player.getUUID();
+        minecraft.getSingleplayerServer().execute(() -> {
+            ServerPlayer player = minecraft.getSingleplayerServer().getPlayerList().getPlayer(playerId);
+            if (player != null) {
+                spawnScene(player.getLevel(), player.position(), player.getYRot(), villagers);
+            }
+        });
+        run = new Run(source, villagers, seconds);
+        ModClientConfigs.INSTANCED_VILLAGERS.set(true);
+        source.sendSuccess(Component.literal(String.format(Locale.ROOT, "Benchmarking %d villagers, %d s instanced and %d s vanilla",
+                villagers, seconds, seconds)), false);
+        return 1;
+    }
+
+    // A square of villagers of our professions ahead of the player, facing back at them
+    private static void spawnScene(ServerLevel level, Vec3 origin, float yaw, int villagers) {
+        int side = Mth.ceil(Math.sqrt(villagers));
+        Vec3 forward = Vec3.directionFromRotation(0.0F, yaw);
+        Vec3 right = new Vec3(-forward.z, 0.0D, forward.x);
+        for (int i = 0; i < villagers; i++) {
+            double ahead = 4.0D + (i / side) * 1.5D;
+            double across = (i % side - (side - 1) / 2.0D) * 1.5D;
+            Vec3 pos = origin.add(forward.scale(ahead)).add(right.scale(across));
+            Villager villager = EntityType.VILLAGER.create(level);
+            if (villager == null) continue;
+            villager.moveTo(pos.x, pos.y, pos.z, yaw + 180.0F, 0.0F);
+            villager.setYHeadRot(yaw + 180.0F);
+            villager.setYBodyRot(yaw + 180.0F);
+            villager.setVillagerData(new VillagerData(VillagerType.PLAINS, PROFESSIONS.get(i % PROFESSIONS.size()).get(), 1 + i % 5));
+            villager.setNoAi(true);
+            villager.setInvulnerable(true);
+            villager.addTag(TAG);
+            villager.finalizeSpawn(level, level.getCurrentDifficultyAt(new BlockPos(pos)), MobSpawnType.COMMAND, null, null);
+            level.addFreshEntity(villager);
+        }
+    }
+
+    private static void removeScene() {
+        Minecraft minecraft = Minecraft.getInstance();
+        if (minecraft.getSingleplayerServer() == null) return;
+        minecraft.getSingleplayerServer().execute(() -> {
+            for (ServerLevel level : minecraft.getSingleplayerServer().getAllLevels()) {
+                level.getEntities(EntityType.VILLAGER, villager -> villager.getTags().contains(TAG)).forEach(Villager::discard);
+            }
+        });
+    }
+
+    @SubscribeEvent
+    public static void onRenderTick(final TickEvent.RenderTickEvent event) {
+        if (run == null || event.phase != TickEvent.Phase.START) return;
+
+        long now = System.nanoTime();
+        if (run.lastFrame != 0) {
+            if (run.phase == Phase.INSTANCED) run.instancedFrames.add(now - run.lastFrame);
+            if (run.phase == Phase.VANILLA) run.vanillaFrames.add(now - run.lastFrame);
+        }
+        run.lastFrame = now;
+
+        long phaseLength = run.phase == Phase.WARMUP_INSTANCED || run.phase == Phase.WARMUP_VANILLA ? WARMUP_NANOS : run.phaseNanos;
+        if (now - run.phaseStart < phaseLength) return;
+        if (run.phase == Phase.VANILLA) {
+            finish();
+            return;
+        }
+        run.phase = Phase.values()[run.phase.ordinal() + 1];
+        run.phaseStart = now;
+        ModClientConfigs.INSTANCED_VILLAGERS.set(run.phase.instanced);
+    }
+
+    private static void finish() {
+        Run finished = run;
+        run = null;
+        ModClientConfigs.INSTANCED_VILLAGERS.set(finished.instancedBefore);
+        removeScene();
+
+        JsonObject report = new JsonObject();
+        report.addProperty("villagers", finished.villagers);
+        report.addProperty("secondsPerRenderer", TimeUnit.NANOSECONDS.toSeconds(finished.phaseNanos));
+        report.add("instanced", summarize(finished.instancedFrames));
+        report.add("vanilla", summarize(finished.vanillaFrames));
+        for (String renderer : List.of("instanced", "vanilla")) {
+            JsonObject summary = report.getAsJsonObject(renderer);
+            finished.source.sendSuccess(Component.literal(String.format(Locale.ROOT, " %s: %d frames, %.2f ms avg, %.2f ms p50, %.2f ms p99",
+                    renderer, summary.get("frames").getAsInt(), summary.get("avgMillis").getAsDouble(),
+                    summary.get("p50Millis").getAsDouble(), summary.get("p99Millis").getAsDouble())), false);
+        }
+
+        Path directory = FMLPaths.GAMEDIR.get().resolve(VillageLife.MODID).resolve("benchmarks");
+        Path file = directory.resolve("render-" + LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss")) + ".json");
+        try {
+            Files.createDirectories(directory);
+            try (Writer writer = Files.newBufferedWriter(file)) {
+                GSON.toJson(report, writer);
+            }
+            LOGGER.info("Wrote villager render benchmark to {}", file);
+        } catch (IOException exception) {
+            LOGGER.error("Couldn't write villager render benchmark", exception);
+        }
+    }
+
+    private static JsonObject summarize(LongArrayList frames) {
+        long[] sorted = frames.toLongArray();
+        Arrays.sort(sorted);
+        long total = 0;
+        for (long frame : sorted) {
+            total += frame;
+        }
+        JsonObject summary = new JsonObject();
+        summary.addProperty("frames", sorted.length);
+        summary.addProperty("avgMillis", sorted.length == 0 ? 0.0D : total / 1.0E6D / sorted.length);
+        summary.addProperty("p50Millis", percentile(sorted, 0.5D));
+        summary.addProperty("p99Millis", percentile(sorted, 0.99D));
+        return summary;
+    }
+
+    private static double percentile(long[] sorted, double percentile) {
+        if (sorted.length == 0) return 0.0D;
+        return sorted[Math.min(sorted.length - 1, (int) (sorted.length * percentile))] / 1.0E6D;
+    }
+}
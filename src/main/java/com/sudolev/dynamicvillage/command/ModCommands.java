@@ -0,0 +1,18 @@
+package com.sudolev.dynamicvillage.command;
+
+import com.sudolev.dynamicvillage.VillageLife;
+import net.minecraft.commands.Commands;
+import net.minecraftforge.event.RegisterCommandsEvent;
+import net.minecraftforge.eventbus.api.SubscribeEvent;
+import net.minecraftforge.fml.common.Mod;
+
+@Mod.EventBusSubscriber(modid = VillageLife.MODID)
+public class ModCommands {
+    @SubscribeEvent
+    public static void registerCommands(final RegisterCommandsEvent event) {
+        event.getDispatcher().register(Commands.literal(VillageLife.MODID)
+                .requires(source -> source.hasPermission(Commands.LEVEL_GAMEMASTERS))
+                .then(StatsCommand.register())
+                .then(PregenCommand.register()));
+    }
+}
@@ -0,0 +1,64 @@
+package com.sudolev.dynamicvillage.command;
+
+import com.mojang.brigadier.arguments.IntegerArgumentType;
+import com.mojang.brigadier.builder.ArgumentBuilder;
+import com.sudolev.dynamicvillage.config.ModCommonConfigs;
+import com.sudolev.dynamicvillage.village.VillagePregenerator;
+import net.minecraft.commands.CommandSourceStack;
+import net.minecraft.commands.Commands;
+import net.minecraft.core.BlockPos;
+import net.minecraft.network.chat.Component;
+import net.minecraft.world.level.ChunkPos;
+
+import java.util.Locale;
+
+/**
+ * {@code /dynamicvillage pregen <radius> [concurrency]} generates every village starting within {@code radius} chunks of
+ * the source, the world spawn when run from the console, and reports chunks per second, jigsaw time and how much of the
+ * piece placement went to our pieces. {@code status} and {@code cancel} act on the running pregen.
+ */
+public class PregenCommand {
+    private static final int MAX_RADIUS = 1024;
+
+    public static ArgumentBuilder<CommandSourceStack, ?> register() {
+        return Commands.literal("pregen")
+                .then(Commands.literal("status").executes(context -> status(context.getSource())))
+                .then(Commands.literal("cancel").executes(context -> cancel(context.getSource())))
+                .then(Commands.argument("radius", IntegerArgumentType.integer(0, MAX_RADIUS))
+                        .executes(context -> start(context.getSource(), IntegerArgumentType.getInteger(context, "radius"),
+                                ModCommonConfigs.PREGEN_CONCURRENCY.get()))
+                        .then(Commands.argument("concurrency", IntegerArgumentType.integer(1, 1024))
+                                .executes(context -> start(context.getSource(), IntegerArgumentType.getInteger(context, "radius"),
+                                        IntegerArgumentType.getInteger(context, "concurrency")))));
+    }
+
+    private static int start(CommandSourceStack source, int radius, int concurrency) {
+        ChunkPos center = new ChunkPos(new BlockPos(source.getPosition()));
+        if (!VillagePregenerator.start(source, source.getLevel(), center, radius, concurrency)) {
+            source.sendFailure(Component.literal("A village pregen is already running"));
+            return 0;
+        }
+        source.sendSuccess(Component.literal(String.format(Locale.ROOT, "Pregenerating villages within %d chunks of %d, %d in %s, %d chunks at a time",
+                radius, center.x, center.z, source.getLevel().dimension().location(), concurrency)), true);
+        return 1;
+    }
+
+    private static int status(CommandSourceStack source) {
+        VillagePregenerator pregenerator = VillagePregenerator.getRunning();
+        if (pregenerator == null) {
+            source.sendFailure(Component.literal("No village pregen is running"));
+            return 0;
+        }
+        source.sendSuccess(Component.literal("Village pregen: " + pregenerator.getProgress()), false);
+        return 1;
+    }
+
+    private static int cancel(CommandSourceStack source) {
+        if (!VillagePregenerator.cancel()) {
+            source.sendFailure(Component.literal("No village pregen is running"));
+            return 0;
+        }
+        source.sendSuccess(Component.literal("Cancelling village pregen once the chunks in flight are done"), true);
+        return 1;
+    }
+}
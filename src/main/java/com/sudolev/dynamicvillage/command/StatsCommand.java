@@ -0,0 +1,120 @@
+package com.sudolev.dynamicvillage.command;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.mojang.brigadier.builder.ArgumentBuilder;
+import com.mojang.logging.LogUtils;
+import com.sudolev.dynamicvillage.VillageLife;
+import com.sudolev.dynamicvillage.stats.StatsReport;
+import com.sudolev.dynamicvillage.stats.VillageStats;
+import net.minecraft.commands.CommandSourceStack;
+import net.minecraft.commands.Commands;
+import net.minecraft.core.BlockPos;
+import net.minecraft.network.chat.Component;
+import net.minecraftforge.fml.loading.FMLPaths;
+import org.slf4j.Logger;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Locale;
+import java.util.stream.Collectors;
+
+/**
+ * {@code /dynamicvillage stats} prints what our professions, job sites and pieces cost since the server started or the
+ * last {@code reset}; {@code dump} writes the full report, every loaded village included, to
+ * {@code dynamicvillage/stats} in the game directory. {@code timing on} starts timing villager AI and counting again,
+ * {@code timing off} stops timing.
+ */
+public class StatsCommand {
+    private static final Logger LOGGER = LogUtils.getLogger();
+    private static final Gson GSON = new GsonBuilder().setPrettyPrinting().create();
+    private static final int VILLAGES_SHOWN = 3;
+
+    public static ArgumentBuilder<CommandSourceStack, ?> register() {
+        return Commands.literal("stats")
+                .executes(context -> show(context.getSource()))
+                .then(Commands.literal("dump").executes(context -> dump(context.getSource())))
+                .then(Commands.literal("reset").executes(context -> reset(context.getSource())))
+                .then(Commands.literal("timing")
+                        .then(Commands.literal("on").executes(context -> timing(context.getSource(), true)))
+                        .then(Commands.literal("off").executes(context -> timing(context.getSource(), false))));
+    }
+
+    private static int show(CommandSourceStack source) {
+        StatsReport report = StatsReport.collect(source.getServer());
+        source.sendSuccess(Component.literal(String.format(Locale.ROOT, "Dynamic Village stats over %d ticks (%.0f s):",
+                report.getTicks(), report.getMillis() / 1000.0D)), false);
+
+        long otherVillagers = 0;
+        long otherNanos = 0;
+        for (StatsReport.ProfessionRow row : report.getProfessions()) {
+            if (!row.ours()) {
+                otherVillagers += row.villagers();
+                otherNanos += row.aiStepNanos();
+                continue;
+            }
+            source.sendSuccess(Component.literal(String.format(Locale.ROOT, " %s: %d villagers, %d trades rolled, %d restocks, AI %.3f ms/tick",
+                    row.profession(), row.villagers(), row.tradesRolled(), row.restocks(), report.millisPerTick(row.aiStepNanos()))), false);
+        }
+        source.sendSuccess(Component.literal(String.format(Locale.ROOT, " other professions: %d villagers, AI %.3f ms/tick",
+                otherVillagers, report.millisPerTick(otherNanos))), false);
+        if (!VillageStats.isTiming()) {
+            source.sendSuccess(Component.literal(" villager AI isn't timed, /dynamicvillage stats timing on starts timing it"), false);
+        }
+
+        for (StatsReport.JobSiteRow row : report.getJobSites()) {
+            source.sendSuccess(Component.literal(String.format(Locale.ROOT, " %s: %d loaded, %d occupied; %d added, %d removed, %d claims, %d releases",
+                    row.poiType(), row.loaded(), row.occupied(), row.added(), row.removed(), row.claimed(), row.released())), false);
+        }
+
+        long pieces = report.getPiecesByBiome().values().stream().mapToLong(Long::longValue).sum();
+        source.sendSuccess(Component.literal(" pieces placed: " + pieces + report.getPiecesByBiome().entrySet().stream()
+                .map(entry -> entry.getKey() + " " + entry.getValue())
+                .collect(Collectors.joining(", ", pieces > 0 ? " (" : "", pieces > 0 ? ")" : ""))), false);
+
+        report.getVillages().stream().limit(VILLAGES_SHOWN).forEach(village -> {
+            BlockPos pos = village.meetingPoint().pos();
+            source.sendSuccess(Component.literal(String.format(Locale.ROOT, " village at %s %d %d %d: %d villagers, AI %.1f ms total",
+                    village.meetingPoint().dimension().location(), pos.getX(), pos.getY(), pos.getZ(), village.villagerCount(),
+                    village.aiStepNanos() / 1.0E6D)), false);
+        });
+        return 1;
+    }
+
+    private static int dump(CommandSourceStack source) {
+        Path directory = FMLPaths.GAMEDIR.get().resolve(VillageLife.MODID).resolve("stats");
+        Path file = directory.resolve("stats-" + LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss")) + ".json");
+        try {
+            Files.createDirectories(directory);
+            try (Writer writer = Files.newBufferedWriter(file)) {
+                GSON.toJson(StatsReport.collect(source.getServer()).toJson(), writer);
+            }
+        } catch (IOException exception) {
+            LOGGER.error("Couldn't write village stats", exception);
+            source.sendFailure(Component.literal("Couldn't write village stats: " + exception.getMessage()));
+            return 0;
+        }
+        source.sendSuccess(Component.literal("Wrote village stats to " + FMLPaths.GAMEDIR.get().relativize(file)), true);
+        return 1;
+    }
+
+    private static int timing(CommandSourceStack source, boolean enabled) {
+        // Counting starts over so AI time per tick only covers timed ticks
+        if (enabled && !VillageStats.isTiming()) {
+            VillageStats.reset(source.getServer());
+        }
+        VillageStats.setTiming(enabled);
+        source.sendSuccess(Component.literal(enabled ? "Timing villager AI" : "Stopped timing villager AI"), true);
+        return 1;
+    }
+
+    private static int reset(CommandSourceStack source) {
+        VillageStats.reset(source.getServer());
+        source.sendSuccess(Component.literal("Reset village stats"), true);
+        return 1;
+    }
+}
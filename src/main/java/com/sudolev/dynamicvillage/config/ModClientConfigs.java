@@ -0,0 +1,21 @@
+package com.sudolev.dynamicvillage.config;
+
+import net.minecraftforge.common.ForgeConfigSpec;
+
+public class ModClientConfigs {
+    public static final ForgeConfigSpec.Builder BUILDER = new ForgeConfigSpec.Builder();
+    public static final ForgeConfigSpec SPEC;
+
+    public static final ForgeConfigSpec.BooleanValue INSTANCED_VILLAGERS;
+
+    static {
+        BUILDER.push("rendering");
+
+        INSTANCED_VILLAGERS = BUILDER.comment("Draw villagers of our professions with Flywheel instancing instead of the vanilla entity renderer.",
+                        "Villagers that hold or wear items, are named, hurt, burning or riding still use the vanilla renderer.")
+                .define("instancedVillagers", false);
+
+        BUILDER.pop();
+        SPEC = BUILDER.build();
+    }
+}
@@ -0,0 +1,93 @@
+package com.sudolev.dynamicvillage.config;
+
+import net.minecraftforge.common.ForgeConfigSpec;
+
+public class ModCommonConfigs {
+    public static final ForgeConfigSpec.Builder BUILDER = new ForgeConfigSpec.Builder();
+    public static final ForgeConfigSpec SPEC;
+
+    public static final ForgeConfigSpec.BooleanValue WEIGHTED_POOL_SAMPLING;
+    public static final ForgeConfigSpec.BooleanValue WARM_UP_TEMPLATES;
+    public static final ForgeConfigSpec.IntValue PREGEN_CONCURRENCY;
+    public static final ForgeConfigSpec.BooleanValue DORMANT_BLOCK_ENTITIES;
+    public static final ForgeConfigSpec.BooleanValue UNLINKED_TRACK_STATIONS;
+    public static final ForgeConfigSpec.IntValue DORMANT_WAKE_RANGE;
+    public static final ForgeConfigSpec.IntValue DORMANT_WAKE_PER_TICK;
+    public static final ForgeConfigSpec.BooleanValue LAZY_BLOCK_ENTITIES;
+
+    public static final ForgeConfigSpec.BooleanValue FILTERED_JOB_SITES;
+    public static final ForgeConfigSpec.IntValue FILTERED_JOB_SITE_RANGE;
+    public static final ForgeConfigSpec.BooleanValue JOB_SITE_INDEX;
+    public static final ForgeConfigSpec.BooleanValue DELTA_OFFER_SYNC;
+    public static final ForgeConfigSpec.BooleanValue BATCHED_VILLAGER_WORK;
+    public static final ForgeConfigSpec.IntValue VILLAGER_WORK_BUDGET;
+    public static final ForgeConfigSpec.IntValue MINERS_PER_VILLAGE;
+    public static final ForgeConfigSpec.IntValue MECHANICAL_ENGINEERS_PER_VILLAGE;
+    public static final ForgeConfigSpec.IntValue HYDRAULIC_ENGINEERS_PER_VILLAGE;
+    public static final ForgeConfigSpec.IntValue TRAIN_MECHANICS_PER_VILLAGE;
+    public static final ForgeConfigSpec.BooleanValue PROFILE_VILLAGER_AI;
+
+    static {
+        BUILDER.push("worldgen");
+
+        WEIGHTED_POOL_SAMPLING = BUILDER.comment("Sample the village pools we add buildings to from a weighted table",
+                        "instead of adding every building to the pool once per point of weight.")
+                .define("weightedPoolSampling", true);
+        WARM_UP_TEMPLATES = BUILDER.comment("Load all of our village building templates in parallel when the server starts,",
+                        "so the first villages don't stall a worldgen thread on reading them. Logs load time and size per template.")
+                .define("warmUpTemplates", false);
+        PREGEN_CONCURRENCY = BUILDER.comment("How many chunks /dynamicvillage pregen keeps generating at once when no concurrency is given.")
+                .defineInRange("pregenConcurrency", 16, 1, 1024);
+        DORMANT_BLOCK_ENTITIES = BUILDER.comment("Keep the Create block entities of our village buildings from ticking until a player comes near the village,",
+                        "then set up their kinetic and fluid networks a few at a time. Applies to villages generated while enabled.")
+                .define("dormantBlockEntities", false);
+        UNLINKED_TRACK_STATIONS = BUILDER.comment("Keep train stations and tracks of our village buildings out of the railway network until a player",
+                        "uses them or builds next to them. They still work as job sites. Applies to villages generated while enabled.")
+                .define("unlinkedTrackStations", true);
+        DORMANT_WAKE_RANGE = BUILDER.comment("How close a player has to come to the Create block entities of a village to wake them up.")
+                .defineInRange("dormantWakeRange", 48, 0, 256);
+        DORMANT_WAKE_PER_TICK = BUILDER.comment("How many dormant block entities wake up per tick and dimension.")
+                .defineInRange("dormantWakePerTick", 8, 1, 1024);
+        LAZY_BLOCK_ENTITIES = BUILDER.comment("Keep the block entities of our village buildings as their template data until their chunk first loads,",
+                        "instead of building and loading each one while the village generates.")
+                .define("lazyBlockEntities", true);
+
+        BUILDER.pop();
+        BUILDER.push("villagers");
+
+        FILTERED_JOB_SITES = BUILDER.comment("Only treat mechanical drills and train stations as job sites when village generation places them",
+                        "or a player places them near a village. Drills and stations elsewhere, including those moved by contraptions,",
+                        "are left out of the point of interest data. Applied when the server starts.")
+                .define("filteredJobSites", false);
+        FILTERED_JOB_SITE_RANGE = BUILDER.comment("How close to a village meeting point a player placed drill or station has to be to become a job site",
+                        "when filteredJobSites is enabled.")
+                .defineInRange("filteredJobSiteRange", 48, 0, 256);
+        JOB_SITE_INDEX = BUILDER.comment("Look up our job sites for villagers looking for work in a per-section index",
+                        "instead of scanning every point of interest in range.")
+                .define("jobSiteIndex", true);
+        DELTA_OFFER_SYNC = BUILDER.comment("Send players with this mod installed only the trades of our professions that changed since they last",
+                        "traded with the villager. Players without the mod get the full trade list as usual.")
+                .define("deltaOfferSync", true);
+        BATCHED_VILLAGER_WORK = BUILDER.comment("Queue restocks and level-ups of our professions and work through them at the end of each tick,",
+                        "instead of on every villager's own tick, so a trading hall restocking at once is spread over several ticks.")
+                .define("batchedVillagerWork", true);
+        VILLAGER_WORK_BUDGET = BUILDER.comment("Microseconds per tick and dimension spent on queued restocks and level-ups when batchedVillagerWork",
+                        "is enabled. At least one villager is handled every tick.")
+                .defineInRange("villagerWorkBudget", 200, 1, 50000);
+        MINERS_PER_VILLAGE = BUILDER.comment("How many miners one village can have, counted from the claimed drills around its meeting points.",
+                        "Villagers beyond that pick other professions. -1, the default, for no limit.")
+                .defineInRange("minersPerVillage", -1, -1, 64);
+        MECHANICAL_ENGINEERS_PER_VILLAGE = BUILDER.comment("How many mechanical engineers one village can have, like minersPerVillage.")
+                .defineInRange("mechanicalEngineersPerVillage", -1, -1, 64);
+        HYDRAULIC_ENGINEERS_PER_VILLAGE = BUILDER.comment("How many hydraulic engineers one village can have, like minersPerVillage.")
+                .defineInRange("hydraulicEngineersPerVillage", -1, -1, 64);
+        TRAIN_MECHANICS_PER_VILLAGE = BUILDER.comment("How many train mechanics one village can have, like minersPerVillage.")
+                .defineInRange("trainMechanicsPerVillage", -1, -1, 64);
+        PROFILE_VILLAGER_AI = BUILDER.comment("Time every villager's AI step, restocks and trade updates for /dynamicvillage stats from the start.",
+                        "Timing costs a little on every villager tick; /dynamicvillage stats timing on enables it until the server stops.")
+                .define("profileVillagerAi", false);
+
+        BUILDER.pop();
+        SPEC = BUILDER.build();
+    }
+}
@@ -0,0 +1,175 @@
+package com.sudolev.dynamicvillage.gametest;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import com.mojang.logging.LogUtils;
+import com.sudolev.dynamicvillage.VillageLife;
+import com.sudolev.dynamicvillage.mixin.VillagerAccessor;
+import com.sudolev.dynamicvillage.villager.ModVillagers;
+import com.sudolev.dynamicvillage.villager.TradeTemplate;
+import it.unimi.dsi.fastutil.ints.Int2ObjectMap;
+import it.unimi.dsi.fastutil.ints.Int2ObjectOpenHashMap;
+import net.minecraft.gametest.framework.GameTest;
+import net.minecraft.gametest.framework.GameTestHelper;
+import net.minecraft.world.entity.EntityType;
+import net.minecraft.world.entity.npc.Villager;
+import net.minecraft.world.entity.npc.VillagerData;
+import net.minecraft.world.entity.npc.VillagerProfession;
+import net.minecraft.world.entity.npc.VillagerTrades;
+import net.minecraft.world.item.trading.MerchantOffers;
+import net.minecraftforge.fml.loading.FMLPaths;
+import net.minecraftforge.gametest.GameTestHolder;
+import net.minecraftforge.gametest.PrefixGameTestTemplate;
+import net.minecraftforge.registries.RegistryObject;
+import org.slf4j.Logger;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Levels a village of villagers of our four professions from novice to master over and over and writes the offers
+ * rolled per second to {@code dynamicvillage/benchmarks} in the game directory, once with the compiled trade templates
+ * and once with listings that build their stacks on every roll like the trades did before. Rounds alternate between the
+ * two so both see the same JIT and GC state. Villagers are never added to the level, so only rolling offers is measured.
+ * Run with the gameTestServer run configuration, {@code -Ddynamicvillage.benchmark.offerVillagers=<n>} sets the
+ * villagers and {@code -Ddynamicvillage.benchmark.offerRounds=<n>} the measured rounds.
+ */
+@GameTestHolder(VillageLife.MODID)
+@PrefixGameTestTemplate(false)
+public class TradeOfferBenchmark {
+    private static final Logger LOGGER = LogUtils.getLogger();
+    private static final Gson GSON = new GsonBuilder().setPrettyPrinting().create();
+    private static final String BATCH = "trade_offer_benchmark";
+    private static final String EMPTY_TEMPLATE = "gametest/empty";
+    private static final int VILLAGERS = Math.max(1, Integer.getInteger("dynamicvillage.benchmark.offerVillagers", 400));
+    private static final int ROUNDS = Math.max(1, Integer.getInteger("dynamicvillage.benchmark.offerRounds", 20));
+    private static final int WARMUP_ROUNDS = 5;
+    private static final List<RegistryObject<VillagerProfession>> PROFESSIONS = List.of(ModVillagers.MECHANICAL_ENGINEER,
+            ModVillagers.HYDRAULIC_ENGINEER, ModVillagers.MINER, ModVillagers.TRAIN_MECHANIC);
+
+    private record Round(long offers, long nanos) {
+        double offersPerSecond() {
+            return offers / (nanos / 1.0E9D);
+        }
+    }
+
+    @GameTest(template = EMPTY_TEMPLATE, batch = BATCH, timeoutTicks = 200)
+    public static void offersPerSecond(GameTestHelper helper) {
+        List<Villager> villagers = new ArrayList<>(VILLAGERS);
+        for (int i = 0; i < VILLAGERS; i++) {
+            Villager villager = new Villager(EntityType.VILLAGER, helper.getLevel());
+            villager.setVillagerData(villager.getVillagerData().setProfession(PROFESSIONS.get(i % PROFESSIONS.size()).get()));
+            villagers.add(villager);
+        }
+
+        Map<VillagerProfession, Int2ObjectMap<VillagerTrades.ItemListing[]>> compiled = new IdentityHashMap<>();
+        Map<VillagerProfession, Int2ObjectMap<VillagerTrades.ItemListing[]>> uncached = new IdentityHashMap<>();
+        for (RegistryObject<VillagerProfession> profession : PROFESSIONS) {
+            Int2ObjectMap<VillagerTrades.ItemListing[]> trades = VillagerTrades.TRADES.get(profession.get());
+            if (trades == null) continue;
+            compiled.put(profession.get(), new Int2ObjectOpenHashMap<>(trades));
+            Int2ObjectMap<VillagerTrades.ItemListing[]> baseline = new Int2ObjectOpenHashMap<>();
+            trades.forEach((level, listings) -> baseline.put((int) level, Arrays.stream(listings)
+                    .map(listing -> listing instanceof TradeTemplate template ? template.uncached() : listing)
+                    .toArray(VillagerTrades.ItemListing[]::new)));
+            uncached.put(profession.get(), baseline);
+        }
+        if (compiled.isEmpty()) {
+            helper.fail("No trades registered for our professions");
+            return;
+        }
+
+        List<Round> compiledRounds = new ArrayList<>();
+        List<Round> uncachedRounds = new ArrayList<>();
+        try {
+            for (int round = 0; round < WARMUP_ROUNDS + ROUNDS; round++) {
+                // Alternate which one goes first, so neither always runs right after the other's garbage
+                boolean compiledFirst = round % 2 == 0;
+                for (int pass = 0; pass < 2; pass++) {
+                    boolean useCompiled = compiledFirst == (pass == 0);
+                    useTrades(useCompiled ? compiled : uncached);
+                    Round result = levelUp(villagers);
+                    if (round >= WARMUP_ROUNDS) {
+                        (useCompiled ? compiledRounds : uncachedRounds).add(result);
+                    }
+                }
+            }
+        } finally {
+            useTrades(compiled);
+        }
+
+        writeReport(compiledRounds, uncachedRounds);
+        helper.succeed();
+    }
+
+    private static void useTrades(Map<VillagerProfession, Int2ObjectMap<VillagerTrades.ItemListing[]>> trades) {
+        trades.forEach((profession, listings) -> VillagerTrades.TRADES.get(profession).putAll(listings));
+    }
+
+    private static Round levelUp(List<Villager> villagers) {
+        long offers = 0;
+        long start = System.nanoTime();
+        for (Villager villager : villagers) {
+            VillagerAccessor accessor = (VillagerAccessor) villager;
+            villager.setVillagerData(villager.getVillagerData().setLevel(VillagerData.MIN_VILLAGER_LEVEL));
+            villager.setOffers(new MerchantOffers());
+            accessor.dynamicvillage$updateTrades();
+            for (int level = VillagerData.MIN_VILLAGER_LEVEL; level < VillagerData.MAX_VILLAGER_LEVEL; level++) {
+                accessor.dynamicvillage$increaseMerchantCareer();
+            }
+            offers += villager.getOffers().size();
+        }
+        return new Round(offers, System.nanoTime() - start);
+    }
+
+    private static void writeReport(List<Round> compiledRounds, List<Round> uncachedRounds) {
+        double compiled = median(compiledRounds);
+        double uncached = median(uncachedRounds);
+        JsonObject report = new JsonObject();
+        report.addProperty("villagers", VILLAGERS);
+        report.addProperty("rounds", ROUNDS);
+        report.addProperty("warmupRounds", WARMUP_ROUNDS);
+        report.addProperty("offersPerRound", compiledRounds.get(0).offers());
+        report.add("compiled", toJson(compiledRounds, compiled));
+        report.add("uncached", toJson(uncachedRounds, uncached));
+        report.addProperty("speedup", compiled / uncached);
+
+        Path directory = FMLPaths.GAMEDIR.get().resolve(VillageLife.MODID).resolve("benchmarks");
+        String name = "trade-offers-" + LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss"));
+        try {
+            Files.createDirectories(directory);
+            try (Writer writer = Files.newBufferedWriter(directory.resolve(name + ".json"))) {
+                GSON.toJson(report, writer);
+            }
+            LOGGER.info("Rolled {} offers per second with compiled trades and {} uncached over {} villagers, written to {}",
+                    Math.round(compiled), Math.round(uncached), VILLAGERS, directory.resolve(name + ".json"));
+        } catch (IOException exception) {
+            LOGGER.error("Couldn't write trade offer benchmark", exception);
+        }
+    }
+
+    private static double median(List<Round> rounds) {
+        double[] rates = rounds.stream().mapToDouble(Round::offersPerSecond).sorted().toArray();
+        return rates.length % 2 == 1 ? rates[rates.length / 2] : (rates[rates.length / 2 - 1] + rates[rates.length / 2]) / 2.0D;
+    }
+
+    private static JsonObject toJson(List<Round> rounds, double median) {
+        JsonObject result = new JsonObject();
+        result.addProperty("medianOffersPerSecond", median);
+        JsonArray rates = new JsonArray();
+        rounds.forEach(round -> rates.add(round.offersPerSecond()));
+        result.add("offersPerSecond", rates);
+        return result;
+    }
+}
@@ -0,0 +1,270 @@
+package com.sudolev.dynamicvillage.gametest;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonObject;
+import com.mojang.logging.LogUtils;
+import com.simibubi.create.AllBlocks;
+import com.sudolev.dynamicvillage.VillageLife;
+import com.sudolev.dynamicvillage.config.ModCommonConfigs;
+import com.sudolev.dynamicvillage.stats.KeyedCounter;
+import com.sudolev.dynamicvillage.stats.VillageStats;
+import com.sudolev.dynamicvillage.villager.ModVillagers;
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.GlobalPos;
+import net.minecraft.gametest.framework.AfterBatch;
+import net.minecraft.gametest.framework.BeforeBatch;
+import net.minecraft.gametest.framework.GameTest;
+import net.minecraft.gametest.framework.GameTestHelper;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.util.Mth;
+import net.minecraft.world.entity.EntityType;
+import net.minecraft.world.entity.ai.memory.MemoryModuleType;
+import net.minecraft.world.entity.npc.Villager;
+import net.minecraft.world.entity.npc.VillagerProfession;
+import net.minecraft.world.item.trading.MerchantOffer;
+import net.minecraft.world.level.block.Blocks;
+import net.minecraft.world.level.block.state.BlockState;
+import net.minecraftforge.fml.loading.FMLPaths;
+import net.minecraftforge.gametest.GameTestHolder;
+import net.minecraftforge.gametest.PrefixGameTestTemplate;
+import net.minecraftforge.registries.RegistryObject;
+import org.slf4j.Logger;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.function.Supplier;
+
+/**
+ * Ticks a trading hall of our four professions, one villager per walled cell next to its claimed job site, and writes
+ * mean and p99 server tick time to {@code dynamicvillage/benchmarks} in the game directory, along with the time spent in
+ * villager brains, restocks and trade updates per tick. Every villager trades every two seconds, so restocks and
+ * level-ups happen like they do in a hall in use. Run with the gameTestServer run configuration,
+ * {@code -Ddynamicvillage.benchmark.hallSize=<n>} sets the villagers per side of the hall and
+ * {@code -Ddynamicvillage.benchmark.ticks=<n>} the ticks measured. With batchedVillagerWork off, restocks and level-ups
+ * run inside the brain tick and count towards both. Villager AI is timed while the batch runs, whatever
+ * profileVillagerAi is set to.
+ */
+@GameTestHolder(VillageLife.MODID)
+@PrefixGameTestTemplate(false)
+public class TradingHallBenchmark {
+    private static final Logger LOGGER = LogUtils.getLogger();
+    private static final Gson GSON = new GsonBuilder().setPrettyPrinting().create();
+    private static final String BATCH = "trading_hall_benchmark";
+    // 48 blocks square, room for 16 cells of three blocks per side
+    private static final String TEMPLATE = "gametest/trading_hall";
+    private static final int CELL = 3;
+    private static final int HALL_SIZE = Mth.clamp(Integer.getInteger("dynamicvillage.benchmark.hallSize", 8), 1, 16);
+    private static final int MAX_TICKS = 20000;
+    private static final int TICKS = Mth.clamp(Integer.getInteger("dynamicvillage.benchmark.ticks", 1200), 1, MAX_TICKS);
+    // Job site POIs are added a tick after their block is placed
+    private static final int SETUP_TICKS = 2;
+    private static final int WARMUP_TICKS = 100;
+    private static final int TRADE_INTERVAL = 40;
+    // Within the work hours of the villager schedule
+    private static final long WORK_TIME = 3000;
+
+    private static boolean wasTiming;
+
+    private record Job(RegistryObject<VillagerProfession> profession, Supplier<BlockState> jobSite) {
+    }
+
+    private static final List<Job> JOBS = List.of(
+            new Job(ModVillagers.MECHANICAL_ENGINEER, () -> AllBlocks.SCHEMATIC_TABLE.get().defaultBlockState()),
+            new Job(ModVillagers.HYDRAULIC_ENGINEER, () -> AllBlocks.ITEM_DRAIN.get().defaultBlockState()),
+            new Job(ModVillagers.MINER, () -> AllBlocks.MECHANICAL_DRILL.get().defaultBlockState()),
+            new Job(ModVillagers.TRAIN_MECHANIC, () -> AllBlocks.TRACK_STATION.get().defaultBlockState()));
+
+    private static class Phases {
+        final long[] tick = new long[TICKS];
+        final long[] brain = new long[TICKS];
+        final long[] restock = new long[TICKS];
+        final long[] tradeUpdate = new long[TICKS];
+        int samples;
+        long lastBrain;
+        long lastRestock;
+        long lastTradeUpdate;
+        long restocks;
+        long trades;
+
+        void start() {
+            lastBrain = total(VillageStats.AI_STEP_NANOS);
+            lastRestock = total(VillageStats.RESTOCK_NANOS);
+            lastTradeUpdate = total(VillageStats.TRADE_UPDATE_NANOS);
+            restocks = total(VillageStats.RESTOCKS);
+            trades = total(VillageStats.TRADES_ROLLED);
+        }
+
+        void sample(MinecraftServer server) {
+            long brainNanos = total(VillageStats.AI_STEP_NANOS);
+            long restockNanos = total(VillageStats.RESTOCK_NANOS);
+            long tradeUpdateNanos = total(VillageStats.TRADE_UPDATE_NANOS);
+            // Game tests run during the tick, the last complete one is the previous tick
+            tick[samples] = server.tickTimes[(server.getTickCount() - 1) % server.tickTimes.length];
+            brain[samples] = brainNanos - lastBrain;
+            restock[samples] = restockNanos - lastRestock;
+            tradeUpdate[samples] = tradeUpdateNanos - lastTradeUpdate;
+            samples++;
+            lastBrain = brainNanos;
+            lastRestock = restockNanos;
+            lastTradeUpdate = tradeUpdateNanos;
+        }
+    }
+
+    @BeforeBatch(batch = BATCH)
+    public static void startWorkHours(ServerLevel level) {
+        level.setDayTime(WORK_TIME);
+        wasTiming = VillageStats.isTiming();
+        VillageStats.setTiming(true);
+    }
+
+    @AfterBatch(batch = BATCH)
+    public static void stopTiming(ServerLevel level) {
+        VillageStats.setTiming(wasTiming);
+    }
+
+    @GameTest(template = TEMPLATE, batch = BATCH, timeoutTicks = SETUP_TICKS + WARMUP_TICKS + MAX_TICKS + 20)
+    public static void tradingHall(GameTestHelper helper) {
+        List<Villager> villagers = new ArrayList<>();
+        List<BlockPos> jobSites = new ArrayList<>();
+        for (int x = 0; x < HALL_SIZE; x++) {
+            for (int z = 0; z < HALL_SIZE; z++) {
+                BlockPos cell = new BlockPos(x * CELL + 1, 1, z * CELL + 1);
+                buildCell(helper, cell, JOBS.get(villagers.size() % JOBS.size()));
+                villagers.add(helper.spawn(EntityType.VILLAGER, cell));
+                jobSites.add(cell.south());
+            }
+        }
+
+        Phases phases = new Phases();
+        long[] ticks = new long[1];
+        Runnable trade = () -> {
+            for (int i = 0; i < villagers.size(); i++) {
+                if ((ticks[0] + i) % TRADE_INTERVAL == 0) trade(villagers.get(i));
+            }
+            ticks[0]++;
+        };
+        helper.startSequence()
+                .thenExecuteAfter(SETUP_TICKS, () -> {
+                    for (int i = 0; i < villagers.size(); i++) {
+                        claimJobSite(helper, villagers.get(i), jobSites.get(i), JOBS.get(i % JOBS.size()).profession().get());
+                    }
+                })
+                .thenExecuteFor(WARMUP_TICKS, trade)
+                .thenExecute(phases::start)
+                .thenExecuteFor(TICKS, () -> {
+                    trade.run();
+                    phases.sample(helper.getLevel().getServer());
+                })
+                .thenExecute(() -> {
+                    long employed = villagers.stream()
+                            .filter(villager -> ModVillagers.isCreateProfession(villager.getVillagerData().getProfession())).count();
+                    writeReport(phases, villagers.size(), employed);
+                    if (employed < villagers.size()) {
+                        helper.fail((villagers.size() - employed) + " of " + villagers.size() + " villagers lost their profession");
+                    }
+                })
+                .thenSucceed();
+    }
+
+    private static void buildCell(GameTestHelper helper, BlockPos cell, Job job) {
+        for (int dx = -1; dx <= 1; dx++) {
+            for (int dz = -1; dz <= 1; dz++) {
+                helper.setBlock(cell.offset(dx, -1, dz), Blocks.STONE);
+                if (dx == 0 && dz == 0) continue;
+                helper.setBlock(cell.offset(dx, 1, dz), Blocks.GLASS);
+                if (dx != 0 || dz != 1) helper.setBlock(cell.offset(dx, 0, dz), Blocks.GLASS);
+            }
+        }
+        helper.setBlock(cell.south(), job.jobSite().get());
+    }
+
+    private static void claimJobSite(GameTestHelper helper, Villager villager, BlockPos jobSite, VillagerProfession profession) {
+        ServerLevel level = helper.getLevel();
+        BlockPos pos = helper.absolutePos(jobSite);
+        if (level.getPoiManager().take(ModVillagers.JOB_SITES, (type, site) -> site.equals(pos), pos, 1).isEmpty()) {
+            helper.fail("No free job site for " + profession.name(), jobSite);
+            return;
+        }
+        villager.getBrain().setMemory(MemoryModuleType.JOB_SITE, GlobalPos.of(level.dimension(), pos));
+        villager.setVillagerData(villager.getVillagerData().setProfession(profession));
+        villager.refreshBrain(level);
+        villager.getOffers();
+    }
+
+    private static void trade(Villager villager) {
+        for (MerchantOffer offer : villager.getOffers()) {
+            if (!offer.isOutOfStock()) {
+                villager.notifyTrade(offer);
+                return;
+            }
+        }
+    }
+
+    private static long total(KeyedCounter counter) {
+        long total = 0;
+        for (Job job : JOBS) {
+            total += counter.get(job.profession().get().name());
+        }
+        return total;
+    }
+
+    private static void writeReport(Phases phases, int villagers, long employed) {
+        JsonObject report = new JsonObject();
+        report.addProperty("villagers", villagers);
+        report.addProperty("employedVillagers", employed);
+        report.addProperty("ticks", phases.samples);
+        report.addProperty("batchedVillagerWork", ModCommonConfigs.BATCHED_VILLAGER_WORK.get());
+        report.addProperty("villagerWorkBudget", ModCommonConfigs.VILLAGER_WORK_BUDGET.get());
+        report.addProperty("jobSiteIndex", ModCommonConfigs.JOB_SITE_INDEX.get());
+        report.addProperty("restocks", total(VillageStats.RESTOCKS) - phases.restocks);
+        report.addProperty("tradesRolled", total(VillageStats.TRADES_ROLLED) - phases.trades);
+
+        JsonObject phasesReport = new JsonObject();
+        phasesReport.add("tick", toJson(phases.tick, phases.samples));
+        phasesReport.add("brain", toJson(phases.brain, phases.samples));
+        phasesReport.add("restock", toJson(phases.restock, phases.samples));
+        phasesReport.add("tradeUpdate", toJson(phases.tradeUpdate, phases.samples));
+        report.add("phases", phasesReport);
+
+        Path directory = FMLPaths.GAMEDIR.get().resolve(VillageLife.MODID).resolve("benchmarks");
+        String name = "trading-hall-" + LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss"));
+        try {
+            Files.createDirectories(directory);
+            try (Writer writer = Files.newBufferedWriter(directory.resolve(name + ".csv"))) {
+                writer.write("tick,tick_millis,brain_millis,restock_millis,trade_update_millis\n");
+                for (int i = 0; i < phases.samples; i++) {
+                    writer.write(String.format(Locale.ROOT, "%d,%.3f,%.3f,%.3f,%.3f\n", i, phases.tick[i] / 1.0E6D,
+                            phases.brain[i] / 1.0E6D, phases.restock[i] / 1.0E6D, phases.tradeUpdate[i] / 1.0E6D));
+                }
+            }
+            try (Writer writer = Files.newBufferedWriter(directory.resolve(name + ".json"))) {
+                GSON.toJson(report, writer);
+            }
+            LOGGER.info("Trading hall of {} villagers over {} ticks: mean tick {} ms, p99 {} ms, written to {}", villagers, phases.samples,
+                    phasesReport.getAsJsonObject("tick").get("meanMillis"), phasesReport.getAsJsonObject("tick").get("p99Millis"),
+                    directory.resolve(name + ".json"));
+        } catch (IOException exception) {
+            LOGGER.error("Couldn't write trading hall benchmark", exception);
+        }
+    }
+
+    private static JsonObject toJson(long[] nanos, int samples) {
+        long[] sorted = Arrays.copyOf(nanos, samples);
+        Arrays.sort(sorted);
+        JsonObject phase = new JsonObject();
+        phase.addProperty("meanMillis", Arrays.stream(sorted).average().orElse(0) / 1.0E6D);
+        phase.addProperty("p99Millis", samples == 0 ? 0 : sorted[Math.max(0, (int) Math.ceil(samples * 0.99D) - 1)] / 1.0E6D);
+        phase.addProperty("maxMillis", samples == 0 ? 0 : sorted[samples - 1] / 1.0E6D);
+        return phase;
+    }
+}
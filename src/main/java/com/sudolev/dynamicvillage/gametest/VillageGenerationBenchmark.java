@@ -0,0 +1,194 @@
+package com.sudolev.dynamicvillage.gametest;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import com.mojang.logging.LogUtils;
+import com.sudolev.dynamicvillage.VillageLife;
+import com.sudolev.dynamicvillage.config.ModCommonConfigs;
+import com.sudolev.dynamicvillage.village.PieceManifest;
+import it.unimi.dsi.fastutil.objects.Object2IntMap;
+import it.unimi.dsi.fastutil.objects.Object2IntLinkedOpenHashMap;
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.Registry;
+import net.minecraft.gametest.framework.AfterBatch;
+import net.minecraft.gametest.framework.GameTest;
+import net.minecraft.gametest.framework.GameTestHelper;
+import net.minecraft.resources.ResourceKey;
+import net.minecraft.resources.ResourceLocation;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.world.level.ChunkPos;
+import net.minecraft.world.level.chunk.ChunkGenerator;
+import net.minecraft.world.level.levelgen.structure.BuiltinStructures;
+import net.minecraft.world.level.levelgen.structure.PoolElementStructurePiece;
+import net.minecraft.world.level.levelgen.structure.Structure;
+import net.minecraft.world.level.levelgen.structure.StructurePiece;
+import net.minecraft.world.level.levelgen.structure.StructureStart;
+import net.minecraft.world.level.levelgen.structure.pools.SinglePoolElement;
+import net.minecraftforge.fml.loading.FMLPaths;
+import net.minecraftforge.gametest.GameTestHolder;
+import net.minecraftforge.gametest.PrefixGameTestTemplate;
+import org.slf4j.Logger;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Generates villages of every biome from fixed seeds and writes wall time, piece counts and how often each of our
+ * buildings was picked to {@code dynamicvillage/benchmarks} in the game directory, along with the block entity bytes
+ * our pieces of each village saved by leaving out default fields. Villages are only assembled, not
+ * placed, so the numbers cover jigsaw assembly and template loading. Run with the gameTestServer run configuration,
+ * {@code -Ddynamicvillage.benchmark.villages=<n>} sets the villages per biome.
+ */
+@GameTestHolder(VillageLife.MODID)
+@PrefixGameTestTemplate(false)
+public class VillageGenerationBenchmark {
+    private static final Logger LOGGER = LogUtils.getLogger();
+    private static final Gson GSON = new GsonBuilder().setPrettyPrinting().create();
+    private static final String BATCH = "worldgen_benchmark";
+    private static final String EMPTY_TEMPLATE = "gametest/empty";
+    private static final long BASE_SEED = 0x5EEDL;
+    private static final int VILLAGES = Integer.getInteger("dynamicvillage.benchmark.villages", 20);
+
+    private record Sample(String biome, long seed, boolean generated, long nanos, int pieces, int ourPieces,
+                          int blockEntityBytesSaved) {
+    }
+
+    private static final List<Sample> samples = new ArrayList<>();
+    private static final Map<String, Object2IntMap<ResourceLocation>> picks = new LinkedHashMap<>();
+
+    @GameTest(template = EMPTY_TEMPLATE, batch = BATCH)
+    public static void plainsVillages(GameTestHelper helper) {
+        benchmark(helper, "plains", BuiltinStructures.VILLAGE_PLAINS);
+    }
+
+    @GameTest(template = EMPTY_TEMPLATE, batch = BATCH)
+    public static void desertVillages(GameTestHelper helper) {
+        benchmark(helper, "desert", BuiltinStructures.VILLAGE_DESERT);
+    }
+
+    @GameTest(template = EMPTY_TEMPLATE, batch = BATCH)
+    public static void taigaVillages(GameTestHelper helper) {
+        benchmark(helper, "taiga", BuiltinStructures.VILLAGE_TAIGA);
+    }
+
+    @GameTest(template = EMPTY_TEMPLATE, batch = BATCH)
+    public static void snowyVillages(GameTestHelper helper) {
+        benchmark(helper, "snowy", BuiltinStructures.VILLAGE_SNOWY);
+    }
+
+    @GameTest(template = EMPTY_TEMPLATE, batch = BATCH)
+    public static void savannaVillages(GameTestHelper helper) {
+        benchmark(helper, "savanna", BuiltinStructures.VILLAGE_SAVANNA);
+    }
+
+    private static void benchmark(GameTestHelper helper, String biome, ResourceKey<Structure> village) {
+        ServerLevel level = helper.getLevel();
+        Structure structure = level.registryAccess().registryOrThrow(Registry.STRUCTURE_REGISTRY).getOrThrow(village);
+        ChunkGenerator generator = level.getChunkSource().getGenerator();
+        ChunkPos chunkPos = new ChunkPos(helper.absolutePos(BlockPos.ZERO));
+        Object2IntMap<ResourceLocation> biomePicks = picks.computeIfAbsent(biome, key -> new Object2IntLinkedOpenHashMap<>());
+
+        int generated = 0;
+        for (int i = 0; i < VILLAGES; i++) {
+            long seed = BASE_SEED + i;
+            long start = System.nanoTime();
+            StructureStart structureStart = structure.generate(level.registryAccess(), generator, generator.getBiomeSource(),
+                    level.getChunkSource().randomState(), level.getStructureManager(), seed, chunkPos, 0, level, biomeHolder -> true);
+            long nanos = System.nanoTime() - start;
+
+            int ourPieces = 0;
+            int blockEntityBytesSaved = 0;
+            for (StructurePiece piece : structureStart.getPieces()) {
+                Optional<ResourceLocation> template = getTemplate(piece);
+                if (template.isPresent() && template.get().getNamespace().equals(VillageLife.MODID)) {
+                    biomePicks.mergeInt(template.get(), 1, Integer::sum);
+                    ourPieces++;
+                    PieceManifest.Piece manifestPiece = PieceManifest.get(template.get());
+                    if (manifestPiece != null) blockEntityBytesSaved += manifestPiece.blockEntityBytesSaved();
+                }
+            }
+            samples.add(new Sample(biome, seed, structureStart.isValid(), nanos, structureStart.getPieces().size(), ourPieces,
+                    blockEntityBytesSaved));
+            if (structureStart.isValid()) generated++;
+        }
+
+        if (generated == 0) {
+            helper.fail("No " + biome + " village generated from " + VILLAGES + " seeds");
+        } else {
+            helper.succeed();
+        }
+    }
+
+    private static Optional<ResourceLocation> getTemplate(StructurePiece piece) {
+        if (piece instanceof PoolElementStructurePiece poolPiece && poolPiece.getElement() instanceof SinglePoolElement element) {
+            return element.template.left();
+        }
+        return Optional.empty();
+    }
+
+    @AfterBatch(batch = BATCH)
+    public static void writeReport(ServerLevel level) {
+        Path directory = FMLPaths.GAMEDIR.get().resolve(VillageLife.MODID).resolve("benchmarks");
+        String name = "worldgen-" + LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss"));
+        try {
+            Files.createDirectories(directory);
+            try (Writer writer = Files.newBufferedWriter(directory.resolve(name + ".csv"))) {
+                writer.write("biome,seed,generated,millis,pieces,dynamicvillage_pieces,block_entity_bytes_saved\n");
+                for (Sample sample : samples) {
+                    writer.write(String.format(Locale.ROOT, "%s,%d,%b,%.3f,%d,%d,%d\n", sample.biome(), sample.seed(), sample.generated(),
+                            sample.nanos() / 1.0E6D, sample.pieces(), sample.ourPieces(), sample.blockEntityBytesSaved()));
+                }
+            }
+            try (Writer writer = Files.newBufferedWriter(directory.resolve(name + ".json"))) {
+                GSON.toJson(toJson(), writer);
+            }
+            LOGGER.info("Wrote village generation benchmark for {} villages to {}", samples.size(), directory.resolve(name + ".json"));
+        } catch (IOException exception) {
+            LOGGER.error("Couldn't write village generation benchmark", exception);
+        } finally {
+            samples.clear();
+            picks.clear();
+        }
+    }
+
+    private static JsonObject toJson() {
+        JsonObject report = new JsonObject();
+        report.addProperty("villagesPerBiome", VILLAGES);
+        report.addProperty("baseSeed", BASE_SEED);
+        report.addProperty("weightedPoolSampling", ModCommonConfigs.WEIGHTED_POOL_SAMPLING.get());
+
+        JsonObject biomes = new JsonObject();
+        picks.forEach((biome, biomePicks) -> {
+            JsonObject biomeReport = new JsonObject();
+            biomeReport.add("villages", new JsonArray());
+            JsonObject picksReport = new JsonObject();
+            biomePicks.forEach((template, count) -> picksReport.addProperty(template.toString(), count));
+            biomeReport.add("picks", picksReport);
+            biomes.add(biome, biomeReport);
+        });
+        for (Sample sample : samples) {
+            JsonObject village = new JsonObject();
+            village.addProperty("seed", sample.seed());
+            village.addProperty("generated", sample.generated());
+            village.addProperty("millis", sample.nanos() / 1.0E6D);
+            village.addProperty("pieces", sample.pieces());
+            village.addProperty("dynamicvillagePieces", sample.ourPieces());
+            village.addProperty("blockEntityBytesSaved", sample.blockEntityBytesSaved());
+            biomes.getAsJsonObject(sample.biome()).getAsJsonArray("villages").add(village);
+        }
+        report.add("biomes", biomes);
+        return report;
+    }
+}
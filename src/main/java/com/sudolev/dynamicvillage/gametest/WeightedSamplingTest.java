@@ -0,0 +1,152 @@
+package com.sudolev.dynamicvillage.gametest;
+
+import com.mojang.datafixers.util.Pair;
+import com.sudolev.dynamicvillage.VillageLife;
+import com.sudolev.dynamicvillage.village.WeightedTemplateSampler;
+import it.unimi.dsi.fastutil.objects.Reference2IntLinkedOpenHashMap;
+import it.unimi.dsi.fastutil.objects.Reference2IntMap;
+import it.unimi.dsi.fastutil.objects.Reference2IntOpenHashMap;
+import net.minecraft.core.Registry;
+import net.minecraft.gametest.framework.GameTest;
+import net.minecraft.gametest.framework.GameTestHelper;
+import net.minecraft.resources.ResourceLocation;
+import net.minecraft.util.RandomSource;
+import net.minecraft.world.level.levelgen.structure.pools.StructurePoolElement;
+import net.minecraft.world.level.levelgen.structure.pools.StructureTemplatePool;
+import net.minecraftforge.gametest.GameTestHolder;
+import net.minecraftforge.gametest.PrefixGameTestTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Chi-square tests of pool sampling against the pool weights, from fixed seeds, on the plains houses pool with our
+ * buildings injected. Covers single draws and the first template of shuffles, which holds with and without
+ * weightedPoolSampling, and templates another mod adds to or replaces in a pool after the sampler was built.
+ */
+@GameTestHolder(VillageLife.MODID)
+@PrefixGameTestTemplate(false)
+public class WeightedSamplingTest {
+    private static final String EMPTY_TEMPLATE = "gametest/empty";
+    private static final ResourceLocation POOL = new ResourceLocation("village/plains/houses");
+    private static final int DRAWS = 200_000;
+    private static final int SHUFFLES = 20_000;
+    // Standard normal quantile for a significance of 0.001
+    private static final double Z = 3.090D;
+
+    @GameTest(template = EMPTY_TEMPLATE)
+    public static void randomTemplateFollowsWeights(GameTestHelper helper) {
+        StructureTemplatePool pool = getPool(helper);
+        RandomSource random = RandomSource.create(42L);
+        Reference2IntMap<StructurePoolElement> counts = new Reference2IntOpenHashMap<>();
+        for (int i = 0; i < DRAWS; i++) {
+            counts.mergeInt(pool.getRandomTemplate(random), 1, Integer::sum);
+        }
+        assertFollowsWeights(helper, "getRandomTemplate", weights(pool.rawTemplates, pool.templates), counts, DRAWS);
+    }
+
+    @GameTest(template = EMPTY_TEMPLATE)
+    public static void shuffledTemplatesFollowWeights(GameTestHelper helper) {
+        StructureTemplatePool pool = getPool(helper);
+        RandomSource random = RandomSource.create(42L);
+        Reference2IntMap<StructurePoolElement> counts = new Reference2IntOpenHashMap<>();
+        for (int i = 0; i < SHUFFLES; i++) {
+            counts.mergeInt(pool.getShuffledTemplates(random).get(0), 1, Integer::sum);
+        }
+        assertFollowsWeights(helper, "getShuffledTemplates", weights(pool.rawTemplates, pool.templates), counts, SHUFFLES);
+    }
+
+    @GameTest(template = EMPTY_TEMPLATE)
+    public static void samplerCountsTemplatesAddedLater(GameTestHelper helper) {
+        List<Pair<String, Integer>> rawTemplates = new ArrayList<>(List.of(Pair.of("a", 1), Pair.of("b", 3)));
+        List<String> templates = new ArrayList<>(List.of("a", "b", "b", "b"));
+        WeightedTemplateSampler<String> sampler = new WeightedTemplateSampler<>(rawTemplates, templates);
+        templates.add("c");
+        templates.add("c");
+        if (sampler.matches(rawTemplates, templates)) {
+            helper.fail("Sampler still matches a pool with added templates");
+            return;
+        }
+
+        sampler = new WeightedTemplateSampler<>(rawTemplates, templates);
+        RandomSource random = RandomSource.create(42L);
+        Reference2IntMap<String> counts = new Reference2IntOpenHashMap<>();
+        for (int i = 0; i < DRAWS; i++) {
+            counts.mergeInt(sampler.sample(random), 1, Integer::sum);
+        }
+        assertFollowsWeights(helper, "sample", weights(rawTemplates, templates), counts, DRAWS);
+    }
+
+    @GameTest(template = EMPTY_TEMPLATE)
+    public static void samplerNoticesReplacedTemplates(GameTestHelper helper) {
+        List<Pair<String, Integer>> rawTemplates = new ArrayList<>(List.of(Pair.of("a", 1), Pair.of("b", 3)));
+        List<String> templates = new ArrayList<>(List.of("a", "b", "b", "b"));
+        WeightedTemplateSampler<String> sampler = new WeightedTemplateSampler<>(rawTemplates, templates);
+        if (!sampler.matches(rawTemplates, templates)) {
+            helper.fail("Sampler doesn't match the pool it was built from");
+            return;
+        }
+        if (sampler.matches(new ArrayList<>(List.of(Pair.of("a", 1), Pair.of("c", 3))), templates)) {
+            helper.fail("Sampler still matches a pool whose raw templates were replaced by a list of the same size");
+            return;
+        }
+
+        templates.set(0, "c");
+        if (sampler.matches(rawTemplates, templates)) {
+            helper.fail("Sampler still matches a pool with a template replaced in place");
+            return;
+        }
+        helper.succeed();
+    }
+
+    private static StructureTemplatePool getPool(GameTestHelper helper) {
+        return helper.getLevel().registryAccess().registryOrThrow(Registry.TEMPLATE_POOL_REGISTRY).getOptional(POOL)
+                .orElseThrow(() -> new IllegalStateException("Missing template pool " + POOL));
+    }
+
+    // Templates only in the duplicated list count once per copy, like vanilla sampling sees them
+    private static <E> Reference2IntMap<E> weights(List<Pair<E, Integer>> rawTemplates, List<E> templates) {
+        Reference2IntMap<E> weights = new Reference2IntLinkedOpenHashMap<>();
+        rawTemplates.forEach(entry -> weights.mergeInt(entry.getFirst(), entry.getSecond(), Integer::sum));
+        Reference2IntMap<E> templatesOnly = new Reference2IntOpenHashMap<>();
+        for (E template : templates) {
+            if (!weights.containsKey(template)) {
+                templatesOnly.mergeInt(template, 1, Integer::sum);
+            }
+        }
+        weights.putAll(templatesOnly);
+        return weights;
+    }
+
+    private static <E> void assertFollowsWeights(GameTestHelper helper, String method, Reference2IntMap<E> weights,
+                                                 Reference2IntMap<E> counts, int draws) {
+        for (E drawn : counts.keySet()) {
+            if (!weights.containsKey(drawn)) {
+                helper.fail(method + " returned " + drawn + ", which isn't in the pool");
+                return;
+            }
+        }
+
+        long totalWeight = 0;
+        for (int weight : weights.values()) {
+            totalWeight += weight;
+        }
+        double chiSquare = 0.0D;
+        for (Reference2IntMap.Entry<E> entry : weights.reference2IntEntrySet()) {
+            double expected = (double) draws * entry.getIntValue() / totalWeight;
+            double difference = counts.getInt(entry.getKey()) - expected;
+            chiSquare += difference * difference / expected;
+        }
+
+        // Wilson-Hilferty approximation of the chi-square quantile
+        int degrees = Math.max(1, weights.size() - 1);
+        double spread = 2.0D / (9.0D * degrees);
+        double critical = degrees * Math.pow(1.0D - spread + Z * Math.sqrt(spread), 3);
+        if (chiSquare > critical) {
+            helper.fail(String.format("%s doesn't follow the pool weights: chi-square %.1f over %d templates, critical value %.1f",
+                    method, chiSquare, weights.size(), critical));
+        } else {
+            helper.succeed();
+        }
+    }
+}
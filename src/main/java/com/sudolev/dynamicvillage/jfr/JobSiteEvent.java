@@ -0,0 +1,56 @@
+package com.sudolev.dynamicvillage.jfr;
+
+import com.sudolev.dynamicvillage.villager.ModVillagers;
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.Holder;
+import net.minecraft.world.entity.ai.village.poi.PoiType;
+
+@Name("dynamicvillage.JobSite")
+@Label("Job Site")
+@Description("One of our job sites added, removed, claimed or released in the POI data")
+@Category({"Dynamic Village", "Villagers"})
+@StackTrace(false)
+public class JobSiteEvent extends Event {
+    public static final String ADDED = "added";
+    public static final String REMOVED = "removed";
+    public static final String CLAIMED = "claimed";
+    public static final String RELEASED = "released";
+
+    @Label("Action")
+    public String action;
+
+    @Label("POI Type")
+    public String poiType;
+
+    @Label("X")
+    public int x;
+
+    @Label("Y")
+    public int y;
+
+    @Label("Z")
+    public int z;
+
+    public static void record(String action, Holder<PoiType> type, BlockPos pos) {
+        JobSiteEvent event = new JobSiteEvent();
+        if (event.isEnabled()) {
+            event.commitFor(action, type, pos);
+        }
+    }
+
+    private void commitFor(String action, Holder<PoiType> type, BlockPos pos) {
+        if (!ModVillagers.JOB_SITES.test(type)) return;
+        this.action = action;
+        this.poiType = type.unwrapKey().map(key -> key.location().toString()).orElse("unregistered");
+        this.x = pos.getX();
+        this.y = pos.getY();
+        this.z = pos.getZ();
+        commit();
+    }
+}
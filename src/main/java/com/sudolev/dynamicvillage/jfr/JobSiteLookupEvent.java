@@ -0,0 +1,24 @@
+package com.sudolev.dynamicvillage.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("dynamicvillage.JobSiteLookup")
+@Label("Job Site Lookup")
+@Description("A villager looking for a free job site through the job site index")
+@Category({"Dynamic Village", "Villagers"})
+@StackTrace(false)
+public class JobSiteLookupEvent extends Event {
+    @Label("Sections")
+    public int sections;
+
+    @Label("Candidates")
+    public int candidates;
+
+    @Label("Found")
+    public int found;
+}
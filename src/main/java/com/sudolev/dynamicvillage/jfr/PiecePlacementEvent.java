@@ -0,0 +1,24 @@
+package com.sudolev.dynamicvillage.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("dynamicvillage.PiecePlacement")
+@Label("Piece Placement")
+@Description("One of our village pieces placed into a chunk, including processors")
+@Category({"Dynamic Village", "Worldgen"})
+@StackTrace(false)
+public class PiecePlacementEvent extends Event {
+    @Label("Template")
+    public String template;
+
+    @Label("Rotation")
+    public String rotation;
+
+    @Label("Placed")
+    public boolean placed;
+}
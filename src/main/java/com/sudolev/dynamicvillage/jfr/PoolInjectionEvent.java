@@ -0,0 +1,24 @@
+package com.sudolev.dynamicvillage.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("dynamicvillage.PoolInjection")
+@Label("Pool Injection")
+@Description("Our buildings added to the village template pools at server start")
+@Category({"Dynamic Village", "Worldgen"})
+@StackTrace(false)
+public class PoolInjectionEvent extends Event {
+    @Label("Pools")
+    public int pools;
+
+    @Label("Buildings")
+    public int buildings;
+
+    @Label("Weighted Sampling")
+    public boolean weighted;
+}
@@ -0,0 +1,42 @@
+package com.sudolev.dynamicvillage.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import net.minecraft.resources.ResourceLocation;
+import net.minecraft.world.level.levelgen.structure.templatesystem.StructureTemplate;
+
+import java.util.Optional;
+import java.util.function.Function;
+
+@Name("dynamicvillage.TemplateLoad")
+@Label("Template Load")
+@Description("One of our structure templates read by the template manager")
+@Category({"Dynamic Village", "Worldgen"})
+@StackTrace(false)
+public class TemplateLoadEvent extends Event {
+    @Label("Template")
+    public String template;
+
+    @Label("Loaded")
+    public boolean loaded;
+
+    @Label("Blocks")
+    public int blocks;
+
+    public static Optional<StructureTemplate> load(ResourceLocation id, Function<ResourceLocation, Optional<StructureTemplate>> loader) {
+        TemplateLoadEvent event = new TemplateLoadEvent();
+        event.begin();
+        Optional<StructureTemplate> template = loader.apply(id);
+        if (event.shouldCommit()) {
+            event.template = id.toString();
+            event.loaded = template.isPresent();
+            event.blocks = template.map(loaded -> loaded.palettes.stream().mapToInt(palette -> palette.blocks().size()).sum()).orElse(0);
+            event.commit();
+        }
+        return template;
+    }
+}
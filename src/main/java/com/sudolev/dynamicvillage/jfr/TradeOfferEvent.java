@@ -0,0 +1,24 @@
+package com.sudolev.dynamicvillage.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("dynamicvillage.TradeOffer")
+@Label("Trade Offer")
+@Description("A merchant offer generated from one of our trade tables")
+@Category({"Dynamic Village", "Villagers"})
+@StackTrace(false)
+public class TradeOfferEvent extends Event {
+    @Label("Profession")
+    public String profession;
+
+    @Label("Level")
+    public int level;
+
+    @Label("Result")
+    public String result;
+}
@@ -0,0 +1,26 @@
+package com.sudolev.dynamicvillage.mixin;
+
+import com.mojang.datafixers.util.Pair;
+import com.sudolev.dynamicvillage.villager.JobSiteIndex;
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.Holder;
+import net.minecraft.world.entity.ai.behavior.AcquirePoi;
+import net.minecraft.world.entity.ai.village.poi.PoiManager;
+import net.minecraft.world.entity.ai.village.poi.PoiType;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.injection.At;
+import org.spongepowered.asm.mixin.injection.Redirect;
+
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+
+@Mixin(AcquirePoi.class)
+public class AcquirePoiMixin {
+    @Redirect(method = "start", at = @At(value = "INVOKE",
+            target = "Lnet/minecraft/world/entity/ai/village/poi/PoiManager;findAllClosestFirstWithType(Ljava/util/function/Predicate;Ljava/util/function/Predicate;Lnet/minecraft/core/BlockPos;ILnet/minecraft/world/entity/ai/village/poi/PoiManager$Occupancy;)Ljava/util/stream/Stream;"))
+    private Stream<Pair<Holder<PoiType>, BlockPos>> dynamicvillage$findJobSites(PoiManager poiManager, Predicate<Holder<PoiType>> typePredicate,
+                                                                              Predicate<BlockPos> posPredicate, BlockPos pos, int distance,
+                                                                              PoiManager.Occupancy occupancy) {
+        return JobSiteIndex.findAllClosestFirstWithType(poiManager, typePredicate, posPredicate, pos, distance, occupancy);
+    }
+}
@@ -0,0 +1,19 @@
+package com.sudolev.dynamicvillage.mixin;
+
+import net.minecraft.nbt.CompoundTag;
+import net.minecraft.world.level.block.entity.BlockEntity;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.gen.Accessor;
+
+import javax.annotation.Nullable;
+
+@Mixin(BlockEntity.class)
+public interface BlockEntityAccessor {
+    // Added by Forge, reading it through getPersistentData() would create it on every block entity
+    @Nullable
+    @Accessor(value = "customPersistentData", remap = false)
+    CompoundTag dynamicvillage$getCustomPersistentData();
+
+    @Accessor(value = "customPersistentData", remap = false)
+    void dynamicvillage$setCustomPersistentData(@Nullable CompoundTag data);
+}
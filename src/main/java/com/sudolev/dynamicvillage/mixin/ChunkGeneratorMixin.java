@@ -0,0 +1,39 @@
+package com.sudolev.dynamicvillage.mixin;
+
+import com.sudolev.dynamicvillage.village.VillagePregenerator;
+import net.minecraft.core.Holder;
+import net.minecraft.core.RegistryAccess;
+import net.minecraft.world.level.ChunkPos;
+import net.minecraft.world.level.LevelHeightAccessor;
+import net.minecraft.world.level.biome.Biome;
+import net.minecraft.world.level.biome.BiomeSource;
+import net.minecraft.world.level.chunk.ChunkGenerator;
+import net.minecraft.world.level.levelgen.RandomState;
+import net.minecraft.world.level.levelgen.structure.Structure;
+import net.minecraft.world.level.levelgen.structure.StructureStart;
+import net.minecraft.world.level.levelgen.structure.structures.JigsawStructure;
+import net.minecraft.world.level.levelgen.structure.templatesystem.StructureTemplateManager;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.injection.At;
+import org.spongepowered.asm.mixin.injection.Redirect;
+
+import java.util.function.Predicate;
+
+@Mixin(ChunkGenerator.class)
+public class ChunkGeneratorMixin {
+    @Redirect(method = "tryGenerateStructure", at = @At(value = "INVOKE",
+            target = "Lnet/minecraft/world/level/levelgen/structure/Structure;generate(Lnet/minecraft/core/RegistryAccess;Lnet/minecraft/world/level/chunk/ChunkGenerator;Lnet/minecraft/world/level/biome/BiomeSource;Lnet/minecraft/world/level/levelgen/RandomState;Lnet/minecraft/world/level/levelgen/structure/templatesystem/StructureTemplateManager;JLnet/minecraft/world/level/ChunkPos;ILnet/minecraft/world/level/LevelHeightAccessor;Ljava/util/function/Predicate;)Lnet/minecraft/world/level/levelgen/structure/StructureStart;"))
+    private StructureStart dynamicvillage$timeJigsaw(Structure structure, RegistryAccess registryAccess, ChunkGenerator generator, BiomeSource biomeSource,
+                                                    RandomState randomState, StructureTemplateManager structureTemplateManager, long seed, ChunkPos chunkPos,
+                                                    int references, LevelHeightAccessor heightAccessor, Predicate<Holder<Biome>> validBiome) {
+        if (!VillagePregenerator.isTiming() || !(structure instanceof JigsawStructure)) {
+            return structure.generate(registryAccess, generator, biomeSource, randomState, structureTemplateManager, seed, chunkPos,
+                    references, heightAccessor, validBiome);
+        }
+        long start = System.nanoTime();
+        StructureStart structureStart = structure.generate(registryAccess, generator, biomeSource, randomState, structureTemplateManager, seed,
+                chunkPos, references, heightAccessor, validBiome);
+        VillagePregenerator.recordJigsaw(System.nanoTime() - start);
+        return structureStart;
+    }
+}
@@ -0,0 +1,12 @@
+package com.sudolev.dynamicvillage.mixin;
+
+import net.minecraft.world.inventory.MerchantMenu;
+import net.minecraft.world.item.trading.Merchant;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.gen.Accessor;
+
+@Mixin(MerchantMenu.class)
+public interface MerchantMenuAccessor {
+    @Accessor("trader")
+    Merchant dynamicvillage$getTrader();
+}
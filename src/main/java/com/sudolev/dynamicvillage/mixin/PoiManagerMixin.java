@@ -0,0 +1,110 @@
+package com.sudolev.dynamicvillage.mixin;
+
+import com.sudolev.dynamicvillage.jfr.JobSiteEvent;
+import com.sudolev.dynamicvillage.stats.KeyedCounter;
+import com.sudolev.dynamicvillage.stats.VillageStats;
+import com.sudolev.dynamicvillage.villager.JobSiteIndex;
+import com.sudolev.dynamicvillage.villager.JobSiteIndexHolder;
+import com.sudolev.dynamicvillage.villager.VillageProfessionCaps;
+import com.sudolev.dynamicvillage.villager.VillageProfessionCapsHolder;
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.Holder;
+import net.minecraft.core.SectionPos;
+import net.minecraft.world.entity.ai.village.poi.PoiManager;
+import net.minecraft.world.entity.ai.village.poi.PoiType;
+import net.minecraft.world.level.ChunkPos;
+import net.minecraft.world.level.chunk.LevelChunkSection;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.Unique;
+import org.spongepowered.asm.mixin.injection.At;
+import org.spongepowered.asm.mixin.injection.Inject;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfoReturnable;
+
+import java.util.Optional;
+import java.util.function.BiPredicate;
+import java.util.function.Predicate;
+
+@Mixin(PoiManager.class)
+public class PoiManagerMixin implements JobSiteIndexHolder, VillageProfessionCapsHolder {
+    @Unique
+    private JobSiteIndex dynamicvillage$jobSiteIndex;
+    @Unique
+    private final VillageProfessionCaps dynamicvillage$professionCaps = new VillageProfessionCaps((PoiManager) (Object) this);
+
+    @Override
+    public JobSiteIndex dynamicvillage$getJobSiteIndex() {
+        if (dynamicvillage$jobSiteIndex == null) {
+            dynamicvillage$jobSiteIndex = new JobSiteIndex((PoiManager) (Object) this);
+        }
+        return dynamicvillage$jobSiteIndex;
+    }
+
+    @Override
+    public VillageProfessionCaps dynamicvillage$getProfessionCaps() {
+        return dynamicvillage$professionCaps;
+    }
+
+    @Unique
+    private void dynamicvillage$invalidate(long sectionKey) {
+        if (dynamicvillage$jobSiteIndex != null) {
+            dynamicvillage$jobSiteIndex.invalidate(sectionKey);
+        }
+    }
+
+    @Unique
+    private void dynamicvillage$record(String action, KeyedCounter counter, Holder<PoiType> type, BlockPos pos) {
+        VillageStats.recordJobSite(counter, type);
+        JobSiteEvent.record(action, type, pos);
+    }
+
+    @Inject(method = "add", at = @At("TAIL"))
+    private void dynamicvillage$onAdd(BlockPos pos, Holder<PoiType> type, CallbackInfo ci) {
+        dynamicvillage$invalidate(SectionPos.asLong(pos));
+        dynamicvillage$professionCaps.onAdded(type);
+        dynamicvillage$record(JobSiteEvent.ADDED, VillageStats.JOB_SITES_ADDED, type, pos);
+    }
+
+    @Inject(method = "remove", at = @At("HEAD"))
+    private void dynamicvillage$beforeRemove(BlockPos pos, CallbackInfo ci) {
+        ((PoiManager) (Object) this).getType(pos).ifPresent(type -> {
+            dynamicvillage$professionCaps.onRemoved(type, pos);
+            dynamicvillage$record(JobSiteEvent.REMOVED, VillageStats.JOB_SITES_REMOVED, type, pos);
+        });
+    }
+
+    @Inject(method = "remove", at = @At("TAIL"))
+    private void dynamicvillage$onRemove(BlockPos pos, CallbackInfo ci) {
+        dynamicvillage$invalidate(SectionPos.asLong(pos));
+    }
+
+    @Inject(method = "take", at = @At("RETURN"))
+    private void dynamicvillage$onTake(Predicate<Holder<PoiType>> typePredicate, BiPredicate<Holder<PoiType>, BlockPos> combinedPredicate,
+                                       BlockPos pos, int distance, CallbackInfoReturnable<Optional<BlockPos>> cir) {
+        cir.getReturnValue().ifPresent(taken -> ((PoiManager) (Object) this).getType(taken).ifPresent(type -> {
+            dynamicvillage$professionCaps.onClaimed(type, taken);
+            dynamicvillage$record(JobSiteEvent.CLAIMED, VillageStats.JOB_SITES_CLAIMED, type, taken);
+        }));
+    }
+
+    @Inject(method = "release", at = @At("RETURN"))
+    private void dynamicvillage$onRelease(BlockPos pos, CallbackInfoReturnable<Boolean> cir) {
+        if (cir.getReturnValue()) {
+            ((PoiManager) (Object) this).getType(pos).ifPresent(type -> {
+                dynamicvillage$professionCaps.onReleased(type, pos);
+                dynamicvillage$record(JobSiteEvent.RELEASED, VillageStats.JOB_SITES_RELEASED, type, pos);
+            });
+        }
+    }
+
+    @Inject(method = "onSectionLoad", at = @At("HEAD"))
+    private void dynamicvillage$onSectionLoad(long sectionKey, CallbackInfo ci) {
+        dynamicvillage$invalidate(sectionKey);
+        dynamicvillage$professionCaps.onSectionLoad(sectionKey);
+    }
+
+    @Inject(method = "checkConsistencyWithBlocks", at = @At("TAIL"))
+    private void dynamicvillage$onRefresh(ChunkPos chunkPos, LevelChunkSection section, CallbackInfo ci) {
+        dynamicvillage$invalidate(SectionPos.asLong(chunkPos.x, SectionPos.blockToSectionCoord(section.bottomBlockY()), chunkPos.z));
+    }
+}
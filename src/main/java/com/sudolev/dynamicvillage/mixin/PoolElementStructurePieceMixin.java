@@ -0,0 +1,34 @@
+package com.sudolev.dynamicvillage.mixin;
+
+import com.sudolev.dynamicvillage.village.ManifestPoolElement;
+import com.sudolev.dynamicvillage.village.VillagePregenerator;
+import net.minecraft.core.BlockPos;
+import net.minecraft.util.RandomSource;
+import net.minecraft.world.level.StructureManager;
+import net.minecraft.world.level.WorldGenLevel;
+import net.minecraft.world.level.block.Rotation;
+import net.minecraft.world.level.chunk.ChunkGenerator;
+import net.minecraft.world.level.levelgen.structure.BoundingBox;
+import net.minecraft.world.level.levelgen.structure.PoolElementStructurePiece;
+import net.minecraft.world.level.levelgen.structure.pools.StructurePoolElement;
+import net.minecraft.world.level.levelgen.structure.templatesystem.StructureTemplateManager;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.injection.At;
+import org.spongepowered.asm.mixin.injection.Redirect;
+
+@Mixin(PoolElementStructurePiece.class)
+public class PoolElementStructurePieceMixin {
+    @Redirect(method = "place", at = @At(value = "INVOKE",
+            target = "Lnet/minecraft/world/level/levelgen/structure/pools/StructurePoolElement;place(Lnet/minecraft/world/level/levelgen/structure/templatesystem/StructureTemplateManager;Lnet/minecraft/world/level/WorldGenLevel;Lnet/minecraft/world/level/StructureManager;Lnet/minecraft/world/level/chunk/ChunkGenerator;Lnet/minecraft/core/BlockPos;Lnet/minecraft/core/BlockPos;Lnet/minecraft/world/level/block/Rotation;Lnet/minecraft/world/level/levelgen/structure/BoundingBox;Lnet/minecraft/util/RandomSource;Z)Z"))
+    private boolean dynamicvillage$timePlacement(StructurePoolElement element, StructureTemplateManager structureTemplateManager, WorldGenLevel level,
+                                                 StructureManager structureManager, ChunkGenerator generator, BlockPos pos, BlockPos pivot,
+                                                 Rotation rotation, BoundingBox box, RandomSource random, boolean keepJigsaws) {
+        if (!VillagePregenerator.isTiming()) {
+            return element.place(structureTemplateManager, level, structureManager, generator, pos, pivot, rotation, box, random, keepJigsaws);
+        }
+        long start = System.nanoTime();
+        boolean placed = element.place(structureTemplateManager, level, structureManager, generator, pos, pivot, rotation, box, random, keepJigsaws);
+        VillagePregenerator.recordPiece(element instanceof ManifestPoolElement, System.nanoTime() - start);
+        return placed;
+    }
+}
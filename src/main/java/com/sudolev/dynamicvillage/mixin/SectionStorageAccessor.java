@@ -0,0 +1,22 @@
+package com.sudolev.dynamicvillage.mixin;
+
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import net.minecraft.world.level.LevelHeightAccessor;
+import net.minecraft.world.level.chunk.storage.SectionStorage;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.gen.Accessor;
+import org.spongepowered.asm.mixin.gen.Invoker;
+
+import java.util.Optional;
+
+@Mixin(SectionStorage.class)
+public interface SectionStorageAccessor<R> {
+    @Accessor("levelHeightAccessor")
+    LevelHeightAccessor dynamicvillage$getLevelHeightAccessor();
+
+    @Accessor("storage")
+    Long2ObjectMap<Optional<R>> dynamicvillage$getStorage();
+
+    @Invoker("getOrLoad")
+    Optional<R> dynamicvillage$getOrLoad(long sectionKey);
+}
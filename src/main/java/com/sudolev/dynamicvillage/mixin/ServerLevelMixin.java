@@ -0,0 +1,38 @@
+package com.sudolev.dynamicvillage.mixin;
+
+import com.sudolev.dynamicvillage.village.DormantBlockEntities;
+import com.sudolev.dynamicvillage.village.DormantBlockEntitiesHolder;
+import com.sudolev.dynamicvillage.villager.JobSiteFilter;
+import com.sudolev.dynamicvillage.villager.VillagerWorkScheduler;
+import com.sudolev.dynamicvillage.villager.VillagerWorkSchedulerHolder;
+import net.minecraft.core.BlockPos;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.world.level.block.state.BlockState;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.Unique;
+import org.spongepowered.asm.mixin.injection.At;
+import org.spongepowered.asm.mixin.injection.Inject;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
+
+@Mixin(ServerLevel.class)
+public class ServerLevelMixin implements VillagerWorkSchedulerHolder, DormantBlockEntitiesHolder {
+    @Unique
+    private final VillagerWorkScheduler dynamicvillage$villagerWorkScheduler = new VillagerWorkScheduler();
+    @Unique
+    private final DormantBlockEntities dynamicvillage$dormantBlockEntities = new DormantBlockEntities();
+
+    @Override
+    public VillagerWorkScheduler dynamicvillage$getVillagerWorkScheduler() {
+        return dynamicvillage$villagerWorkScheduler;
+    }
+
+    @Override
+    public DormantBlockEntities dynamicvillage$getDormantBlockEntities() {
+        return dynamicvillage$dormantBlockEntities;
+    }
+
+    @Inject(method = "onBlockStateChange", at = @At("HEAD"))
+    private void dynamicvillage$removeFilteredJobSite(BlockPos pos, BlockState oldState, BlockState newState, CallbackInfo ci) {
+        JobSiteFilter.onBlockStateChange((ServerLevel) (Object) this, pos, oldState, newState);
+    }
+}
@@ -0,0 +1,20 @@
+package com.sudolev.dynamicvillage.mixin;
+
+import com.sudolev.dynamicvillage.network.MerchantOfferSync;
+import net.minecraft.server.level.ServerPlayer;
+import net.minecraft.world.item.trading.MerchantOffers;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.injection.At;
+import org.spongepowered.asm.mixin.injection.Inject;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
+
+@Mixin(ServerPlayer.class)
+public class ServerPlayerMixin {
+    @Inject(method = "sendMerchantOffers", at = @At("HEAD"), cancellable = true)
+    private void dynamicvillage$sendOfferDelta(int containerId, MerchantOffers offers, int level, int xp, boolean showProgress,
+                                               boolean canRestock, CallbackInfo ci) {
+        if (MerchantOfferSync.trySend((ServerPlayer) (Object) this, containerId, offers, level, xp, showProgress, canRestock)) {
+            ci.cancel();
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package com.sudolev.dynamicvillage.mixin;
+
+import com.simibubi.create.foundation.blockEntity.SmartBlockEntity;
+import com.sudolev.dynamicvillage.village.DormantBlockEntities;
+import com.sudolev.dynamicvillage.village.UnlinkedTracks;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.Unique;
+import org.spongepowered.asm.mixin.injection.At;
+import org.spongepowered.asm.mixin.injection.Inject;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
+
+@Mixin(value = SmartBlockEntity.class, remap = false)
+public class SmartBlockEntityMixin {
+    @Unique
+    private boolean dynamicvillage$registeredDormant;
+
+    @Inject(method = "tick", at = @At("HEAD"), cancellable = true)
+    private void dynamicvillage$skipDormantTick(CallbackInfo ci) {
+        if (DormantBlockEntities.isDormant((SmartBlockEntity) (Object) this, !dynamicvillage$registeredDormant)) {
+            dynamicvillage$registeredDormant = true;
+            ci.cancel();
+        } else if (UnlinkedTracks.isUnlinked((SmartBlockEntity) (Object) this)) {
+            ci.cancel();
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package com.sudolev.dynamicvillage.mixin;
+
+import com.sudolev.dynamicvillage.VillageLife;
+import com.sudolev.dynamicvillage.jfr.TemplateLoadEvent;
+import net.minecraft.resources.ResourceLocation;
+import net.minecraft.world.level.levelgen.structure.templatesystem.StructureTemplate;
+import net.minecraft.world.level.levelgen.structure.templatesystem.StructureTemplateManager;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.injection.At;
+import org.spongepowered.asm.mixin.injection.Redirect;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+
+@Mixin(StructureTemplateManager.class)
+public class StructureTemplateManagerMixin {
+    @Redirect(method = "get", at = @At(value = "INVOKE",
+            target = "Ljava/util/Map;computeIfAbsent(Ljava/lang/Object;Ljava/util/function/Function;)Ljava/lang/Object;"))
+    private Object dynamicvillage$recordTemplateLoad(Map<ResourceLocation, Optional<StructureTemplate>> structureRepository, Object key,
+                                                     Function<ResourceLocation, Optional<StructureTemplate>> loader) {
+        ResourceLocation id = (ResourceLocation) key;
+        if (!id.getNamespace().equals(VillageLife.MODID)) {
+            return structureRepository.computeIfAbsent(id, loader);
+        }
+        Optional<StructureTemplate> template = structureRepository.get(id);
+        return template != null ? template : structureRepository.computeIfAbsent(id, missing -> TemplateLoadEvent.load(missing, loader));
+    }
+}
@@ -0,0 +1,23 @@
+package com.sudolev.dynamicvillage.mixin;
+
+import com.sudolev.dynamicvillage.village.LazyBlockEntities;
+import net.minecraft.core.BlockPos;
+import net.minecraft.nbt.CompoundTag;
+import net.minecraft.util.RandomSource;
+import net.minecraft.world.level.ServerLevelAccessor;
+import net.minecraft.world.level.block.entity.BlockEntity;
+import net.minecraft.world.level.levelgen.structure.templatesystem.StructurePlaceSettings;
+import net.minecraft.world.level.levelgen.structure.templatesystem.StructureTemplate;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.injection.At;
+import org.spongepowered.asm.mixin.injection.Redirect;
+
+@Mixin(StructureTemplate.class)
+public class StructureTemplateMixin {
+    @Redirect(method = "placeInWorld", at = @At(value = "INVOKE",
+            target = "Lnet/minecraft/world/level/block/entity/BlockEntity;load(Lnet/minecraft/nbt/CompoundTag;)V"))
+    private void dynamicvillage$loadBlockEntity(BlockEntity blockEntity, CompoundTag nbt, ServerLevelAccessor level, BlockPos pos,
+                                                BlockPos pivot, StructurePlaceSettings settings, RandomSource random, int flags) {
+        LazyBlockEntities.load(level, blockEntity, nbt);
+    }
+}
@@ -0,0 +1,77 @@
+package com.sudolev.dynamicvillage.mixin;
+
+import com.sudolev.dynamicvillage.village.InjectedTemplatePool;
+import com.sudolev.dynamicvillage.village.WeightedTemplatePool;
+import com.sudolev.dynamicvillage.village.WeightedTemplateSampler;
+import net.minecraft.util.RandomSource;
+import net.minecraft.world.level.levelgen.structure.pools.StructurePoolElement;
+import net.minecraft.world.level.levelgen.structure.pools.StructureTemplatePool;
+import javax.annotation.Nullable;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.Unique;
+import org.spongepowered.asm.mixin.injection.At;
+import org.spongepowered.asm.mixin.injection.Inject;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfoReturnable;
+
+import java.util.List;
+
+@Mixin(StructureTemplatePool.class)
+public class StructureTemplatePoolMixin implements WeightedTemplatePool, InjectedTemplatePool {
+    @Unique
+    @Nullable
+    private InjectedTemplatePool.Original dynamicvillage$original;
+    @Unique
+    @Nullable
+    private volatile WeightedTemplateSampler<StructurePoolElement> dynamicvillage$sampler;
+
+    @Override
+    @Nullable
+    public InjectedTemplatePool.Original dynamicvillage$getOriginal() {
+        return dynamicvillage$original;
+    }
+
+    @Override
+    public void dynamicvillage$setOriginal(InjectedTemplatePool.Original original) {
+        dynamicvillage$original = original;
+    }
+
+    @Override
+    @Nullable
+    public WeightedTemplateSampler<StructurePoolElement> dynamicvillage$getSampler() {
+        return dynamicvillage$sampler;
+    }
+
+    @Override
+    public void dynamicvillage$setSampler(@Nullable WeightedTemplateSampler<StructurePoolElement> sampler) {
+        dynamicvillage$sampler = sampler;
+    }
+
+    // Rebuilt when another mod changed the pool after injection, so its additions are sampled too
+    @Unique
+    @Nullable
+    private WeightedTemplateSampler<StructurePoolElement> dynamicvillage$currentSampler() {
+        WeightedTemplateSampler<StructurePoolElement> sampler = dynamicvillage$sampler;
+        StructureTemplatePool pool = (StructureTemplatePool) (Object) this;
+        if (sampler != null && !sampler.matches(pool.rawTemplates, pool.templates)) {
+            sampler = new WeightedTemplateSampler<>(pool.rawTemplates, pool.templates);
+            dynamicvillage$sampler = sampler;
+        }
+        return sampler;
+    }
+
+    @Inject(method = "getRandomTemplate", at = @At("HEAD"), cancellable = true)
+    private void dynamicvillage$sampleRandomTemplate(RandomSource random, CallbackInfoReturnable<StructurePoolElement> cir) {
+        WeightedTemplateSampler<StructurePoolElement> sampler = dynamicvillage$currentSampler();
+        if (sampler != null) {
+            cir.setReturnValue(sampler.sample(random));
+        }
+    }
+
+    @Inject(method = "getShuffledTemplates", at = @At("HEAD"), cancellable = true)
+    private void dynamicvillage$sampleShuffledTemplates(RandomSource random, CallbackInfoReturnable<List<StructurePoolElement>> cir) {
+        WeightedTemplateSampler<StructurePoolElement> sampler = dynamicvillage$currentSampler();
+        if (sampler != null) {
+            cir.setReturnValue(sampler.shuffled(random));
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package com.sudolev.dynamicvillage.mixin;
+
+import com.simibubi.create.content.trains.graph.TrackGraph;
+import com.simibubi.create.content.trains.track.TrackPropagator;
+import com.sudolev.dynamicvillage.village.UnlinkedTracks;
+import net.minecraft.core.BlockPos;
+import net.minecraft.world.level.LevelAccessor;
+import net.minecraft.world.level.block.state.BlockState;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.injection.At;
+import org.spongepowered.asm.mixin.injection.Inject;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfoReturnable;
+
+@Mixin(value = TrackPropagator.class, remap = false)
+public class TrackPropagatorMixin {
+    @Inject(method = "onRailAdded", at = @At("HEAD"), cancellable = true)
+    private static void dynamicvillage$skipUnlinkedTrack(LevelAccessor level, BlockPos pos, BlockState state, CallbackInfoReturnable<TrackGraph> cir) {
+        if (UnlinkedTracks.isUnlinked(level, pos)) {
+            cir.setReturnValue(null);
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package com.sudolev.dynamicvillage.mixin;
+
+import net.minecraft.world.entity.npc.Villager;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.gen.Invoker;
+
+@Mixin(Villager.class)
+public interface VillagerAccessor {
+    @Invoker("increaseMerchantCareer")
+    void dynamicvillage$increaseMerchantCareer();
+
+    @Invoker("updateTrades")
+    void dynamicvillage$updateTrades();
+}
@@ -0,0 +1,76 @@
+package com.sudolev.dynamicvillage.mixin;
+
+import com.sudolev.dynamicvillage.stats.VillageStats;
+import com.sudolev.dynamicvillage.stats.VillagerStatsHolder;
+import com.sudolev.dynamicvillage.villager.VillagerWorkScheduler;
+import net.minecraft.world.entity.npc.Villager;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.Unique;
+import org.spongepowered.asm.mixin.injection.At;
+import org.spongepowered.asm.mixin.injection.Inject;
+import org.spongepowered.asm.mixin.injection.Redirect;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
+
+@Mixin(Villager.class)
+public class VillagerMixin implements VillagerStatsHolder {
+    @Unique
+    private long dynamicvillage$aiStepStart;
+    @Unique
+    private long dynamicvillage$aiStepNanos;
+    @Unique
+    private long dynamicvillage$restockStart;
+    @Unique
+    private long dynamicvillage$tradeUpdateStart;
+
+    @Override
+    public long dynamicvillage$getAiStepNanos() {
+        return dynamicvillage$aiStepNanos;
+    }
+
+    @Override
+    public void dynamicvillage$resetAiStepNanos() {
+        dynamicvillage$aiStepNanos = 0;
+    }
+
+    @Inject(method = "customServerAiStep", at = @At("HEAD"))
+    private void dynamicvillage$startAiStep(CallbackInfo ci) {
+        dynamicvillage$aiStepStart = VillageStats.isTiming() ? System.nanoTime() : 0;
+    }
+
+    @Inject(method = "customServerAiStep", at = @At("TAIL"))
+    private void dynamicvillage$endAiStep(CallbackInfo ci) {
+        if (dynamicvillage$aiStepStart == 0) return;
+        long nanos = System.nanoTime() - dynamicvillage$aiStepStart;
+        dynamicvillage$aiStepNanos += nanos;
+        VillageStats.recordAiStep(((Villager) (Object) this).getVillagerData().getProfession(), nanos);
+    }
+
+    @Redirect(method = "customServerAiStep", at = @At(value = "INVOKE",
+            target = "Lnet/minecraft/world/entity/npc/Villager;increaseMerchantCareer()V"))
+    private void dynamicvillage$scheduleLevelUp(Villager villager) {
+        VillagerWorkScheduler.increaseMerchantCareer(villager);
+    }
+
+    @Inject(method = "restock", at = @At("HEAD"))
+    private void dynamicvillage$startRestock(CallbackInfo ci) {
+        dynamicvillage$restockStart = VillageStats.isTiming() ? System.nanoTime() : 0;
+    }
+
+    @Inject(method = "restock", at = @At("TAIL"))
+    private void dynamicvillage$endRestock(CallbackInfo ci) {
+        VillageStats.recordRestock(((Villager) (Object) this).getVillagerData().getProfession(),
+                dynamicvillage$restockStart == 0 ? 0 : System.nanoTime() - dynamicvillage$restockStart);
+    }
+
+    @Inject(method = "updateTrades", at = @At("HEAD"))
+    private void dynamicvillage$startTradeUpdate(CallbackInfo ci) {
+        dynamicvillage$tradeUpdateStart = VillageStats.isTiming() ? System.nanoTime() : 0;
+    }
+
+    @Inject(method = "updateTrades", at = @At("TAIL"))
+    private void dynamicvillage$endTradeUpdate(CallbackInfo ci) {
+        if (dynamicvillage$tradeUpdateStart == 0) return;
+        VillageStats.recordTradeUpdate(((Villager) (Object) this).getVillagerData().getProfession(),
+                System.nanoTime() - dynamicvillage$tradeUpdateStart);
+    }
+}
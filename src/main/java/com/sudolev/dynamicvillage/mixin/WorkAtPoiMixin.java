@@ -0,0 +1,17 @@
+package com.sudolev.dynamicvillage.mixin;
+
+import com.sudolev.dynamicvillage.villager.VillagerWorkScheduler;
+import net.minecraft.world.entity.ai.behavior.WorkAtPoi;
+import net.minecraft.world.entity.npc.Villager;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.injection.At;
+import org.spongepowered.asm.mixin.injection.Redirect;
+
+@Mixin(WorkAtPoi.class)
+public class WorkAtPoiMixin {
+    @Redirect(method = "start(Lnet/minecraft/server/level/ServerLevel;Lnet/minecraft/world/entity/npc/Villager;J)V",
+            at = @At(value = "INVOKE", target = "Lnet/minecraft/world/entity/npc/Villager;restock()V"))
+    private void dynamicvillage$scheduleRestock(Villager villager) {
+        VillagerWorkScheduler.restock(villager);
+    }
+}
@@ -0,0 +1,86 @@
+package com.sudolev.dynamicvillage.network;
+
+import com.sudolev.dynamicvillage.VillageLife;
+import com.sudolev.dynamicvillage.config.ModCommonConfigs;
+import com.sudolev.dynamicvillage.mixin.MerchantMenuAccessor;
+import com.sudolev.dynamicvillage.villager.ModVillagers;
+import net.minecraft.server.level.ServerPlayer;
+import net.minecraft.world.entity.npc.Villager;
+import net.minecraft.world.inventory.MerchantMenu;
+import net.minecraft.world.item.trading.MerchantOffers;
+import net.minecraftforge.event.entity.player.PlayerEvent;
+import net.minecraftforge.eventbus.api.SubscribeEvent;
+import net.minecraftforge.fml.common.Mod;
+import net.minecraftforge.network.PacketDistributor;
+
+import javax.annotation.Nullable;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Sends the offers of our professions as {@link MerchantOffersDeltaPacket}s. For every player we keep what they were
+ * last sent per villager, up to {@link #VILLAGERS_PER_PLAYER} villagers; the client keeps the same lists and asks for
+ * the full list again when it's missing the version a delta is based on. Server thread only.
+ */
+@Mod.EventBusSubscriber(modid = VillageLife.MODID)
+public class MerchantOfferSync {
+    private static final int VILLAGERS_PER_PLAYER = 64;
+
+    private record Sent(int version, MerchantOffers offers) {
+    }
+
+    private static final Map<UUID, Map<UUID, Sent>> sentByPlayer = new HashMap<>();
+
+    public static boolean trySend(ServerPlayer player, int containerId, MerchantOffers offers, int level, int xp,
+                                  boolean showProgress, boolean canRestock) {
+        if (!ModCommonConfigs.DELTA_OFFER_SYNC.get()) return false;
+        Villager villager = getTradingVillager(player, containerId);
+        if (villager == null || !ModVillagers.isCreateProfession(villager.getVillagerData().getProfession())) return false;
+        if (!ModNetwork.isPresent(player)) return false;
+
+        Map<UUID, Sent> sent = sentByPlayer.computeIfAbsent(player.getUUID(), key -> new LinkedHashMap<>(16, 0.75F, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<UUID, Sent> eldest) {
+                return size() > VILLAGERS_PER_PLAYER;
+            }
+        });
+        Sent previous = sent.get(villager.getUUID());
+        int version = previous == null ? 1 : previous.version() + 1;
+        MerchantOffersDeltaPacket packet = MerchantOffersDeltaPacket.diff(containerId, villager.getUUID(),
+                previous == null ? MerchantOffersDeltaPacket.FULL : previous.version(), previous == null ? null : previous.offers(),
+                version, offers, level, xp, showProgress, canRestock);
+        // The villager keeps changing its own offers, so we hold on to a copy
+        sent.put(villager.getUUID(), new Sent(version, new MerchantOffers(offers.createTag())));
+        ModNetwork.CHANNEL.send(PacketDistributor.PLAYER.with(() -> player), packet);
+        return true;
+    }
+
+    public static void resend(ServerPlayer player, UUID villagerId) {
+        Map<UUID, Sent> sent = sentByPlayer.get(player.getUUID());
+        if (sent != null) {
+            sent.remove(villagerId);
+        }
+
+        Villager villager = getTradingVillager(player, player.containerMenu.containerId);
+        if (villager != null && villager.getUUID().equals(villagerId)) {
+            player.sendMerchantOffers(player.containerMenu.containerId, villager.getOffers(), villager.getVillagerData().getLevel(),
+                    villager.getVillagerXp(), villager.showProgressBar(), villager.canRestock());
+        }
+    }
+
+    @Nullable
+    private static Villager getTradingVillager(ServerPlayer player, int containerId) {
+        if (player.containerMenu instanceof MerchantMenu menu && menu.containerId == containerId
+                && ((MerchantMenuAccessor) menu).dynamicvillage$getTrader() instanceof Villager villager) {
+            return villager;
+        }
+        return null;
+    }
+
+    @SubscribeEvent
+    public static void onPlayerLoggedOut(final PlayerEvent.PlayerLoggedOutEvent event) {
+        sentByPlayer.remove(event.getEntity().getUUID());
+    }
+}
@@ -0,0 +1,202 @@
+package com.sudolev.dynamicvillage.network;
+
+import com.sudolev.dynamicvillage.client.ClientMerchantOffers;
+import net.minecraft.network.FriendlyByteBuf;
+import net.minecraft.world.item.ItemStack;
+import net.minecraft.world.item.trading.MerchantOffer;
+import net.minecraft.world.item.trading.MerchantOffers;
+import net.minecraftforge.api.distmarker.Dist;
+import net.minecraftforge.fml.DistExecutor;
+import net.minecraftforge.network.NetworkEvent;
+
+import javax.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+/**
+ * The offers of one villager as changes against the version the client was sent last. Offers whose items and limits
+ * are unchanged only carry their uses, price and demand; offers that didn't change at all are left out. A base version
+ * of 0 means the list is sent in full.
+ */
+public class MerchantOffersDeltaPacket {
+    public static final int FULL = 0;
+
+    private record Change(int index, @Nullable MerchantOffer offer, int uses, int specialPriceDiff, int demand) {
+    }
+
+    private final int containerId;
+    private final UUID villager;
+    private final int baseVersion;
+    private final int version;
+    private final int size;
+    private final List<Change> changes;
+    private final int villagerLevel;
+    private final int villagerXp;
+    private final boolean showProgress;
+    private final boolean canRestock;
+
+    private MerchantOffersDeltaPacket(int containerId, UUID villager, int baseVersion, int version, int size, List<Change> changes,
+                                      int villagerLevel, int villagerXp, boolean showProgress, boolean canRestock) {
+        this.containerId = containerId;
+        this.villager = villager;
+        this.baseVersion = baseVersion;
+        this.version = version;
+        this.size = size;
+        this.changes = changes;
+        this.villagerLevel = villagerLevel;
+        this.villagerXp = villagerXp;
+        this.showProgress = showProgress;
+        this.canRestock = canRestock;
+    }
+
+    public static MerchantOffersDeltaPacket diff(int containerId, UUID villager, int baseVersion, @Nullable MerchantOffers base, int version,
+                                                 MerchantOffers offers, int villagerLevel, int villagerXp, boolean showProgress, boolean canRestock) {
+        List<Change> changes = new ArrayList<>();
+        for (int i = 0; i < offers.size(); i++) {
+            MerchantOffer offer = offers.get(i);
+            MerchantOffer previous = base != null && i < base.size() ? base.get(i) : null;
+            if (previous == null || !isSameTrade(previous, offer)) {
+                changes.add(new Change(i, offer, 0, 0, 0));
+            } else if (previous.getUses() != offer.getUses() || previous.getSpecialPriceDiff() != offer.getSpecialPriceDiff()
+                    || previous.getDemand() != offer.getDemand()) {
+                changes.add(new Change(i, null, offer.getUses(), offer.getSpecialPriceDiff(), offer.getDemand()));
+            }
+        }
+        return new MerchantOffersDeltaPacket(containerId, villager, base == null ? FULL : baseVersion, version, offers.size(), changes,
+                villagerLevel, villagerXp, showProgress, canRestock);
+    }
+
+    private static boolean isSameTrade(MerchantOffer previous, MerchantOffer offer) {
+        return previous.getMaxUses() == offer.getMaxUses() && previous.getXp() == offer.getXp()
+                && previous.getPriceMultiplier() == offer.getPriceMultiplier()
+                && ItemStack.matches(previous.getBaseCostA(), offer.getBaseCostA())
+                && ItemStack.matches(previous.getCostB(), offer.getCostB())
+                && ItemStack.matches(previous.getResult(), offer.getResult());
+    }
+
+    public MerchantOffersDeltaPacket(FriendlyByteBuf buf) {
+        this.containerId = buf.readVarInt();
+        this.villager = buf.readUUID();
+        this.baseVersion = buf.readVarInt();
+        this.version = buf.readVarInt();
+        this.size = buf.readVarInt();
+        int changeCount = buf.readVarInt();
+        this.changes = new ArrayList<>(changeCount);
+        for (int i = 0; i < changeCount; i++) {
+            int index = buf.readVarInt();
+            if (buf.readBoolean()) {
+                ItemStack costA = buf.readItem();
+                ItemStack costB = buf.readItem();
+                ItemStack result = buf.readItem();
+                int uses = buf.readVarInt();
+                int maxUses = buf.readVarInt();
+                int xp = buf.readVarInt();
+                int specialPriceDiff = buf.readInt();
+                float priceMultiplier = buf.readFloat();
+                int demand = buf.readInt();
+                MerchantOffer offer = new MerchantOffer(costA, costB, result, uses, maxUses, xp, priceMultiplier, demand);
+                offer.setSpecialPriceDiff(specialPriceDiff);
+                changes.add(new Change(index, offer, 0, 0, 0));
+            } else {
+                changes.add(new Change(index, null, buf.readVarInt(), buf.readInt(), buf.readInt()));
+            }
+        }
+        this.villagerLevel = buf.readVarInt();
+        this.villagerXp = buf.readVarInt();
+        this.showProgress = buf.readBoolean();
+        this.canRestock = buf.readBoolean();
+    }
+
+    public void encode(FriendlyByteBuf buf) {
+        buf.writeVarInt(containerId);
+        buf.writeUUID(villager);
+        buf.writeVarInt(baseVersion);
+        buf.writeVarInt(version);
+        buf.writeVarInt(size);
+        buf.writeVarInt(changes.size());
+        for (Change change : changes) {
+            buf.writeVarInt(change.index());
+            MerchantOffer offer = change.offer();
+            buf.writeBoolean(offer != null);
+            if (offer != null) {
+                buf.writeItem(offer.getBaseCostA());
+                buf.writeItem(offer.getCostB());
+                buf.writeItem(offer.getResult());
+                buf.writeVarInt(offer.getUses());
+                buf.writeVarInt(offer.getMaxUses());
+                buf.writeVarInt(offer.getXp());
+                buf.writeInt(offer.getSpecialPriceDiff());
+                buf.writeFloat(offer.getPriceMultiplier());
+                buf.writeInt(offer.getDemand());
+            } else {
+                buf.writeVarInt(change.uses());
+                buf.writeInt(change.specialPriceDiff());
+                buf.writeInt(change.demand());
+            }
+        }
+        buf.writeVarInt(villagerLevel);
+        buf.writeVarInt(villagerXp);
+        buf.writeBoolean(showProgress);
+        buf.writeBoolean(canRestock);
+    }
+
+    /**
+     * Builds the new offer list from {@code base}, which is left untouched. Offers that didn't change are shared with it.
+     */
+    public MerchantOffers apply(MerchantOffers base) {
+        MerchantOffers offers = new MerchantOffers();
+        for (int i = 0; i < size; i++) {
+            offers.add(i < base.size() ? base.get(i) : null);
+        }
+        for (Change change : changes) {
+            if (change.offer() != null) {
+                offers.set(change.index(), change.offer());
+            } else {
+                MerchantOffer previous = offers.get(change.index());
+                MerchantOffer offer = new MerchantOffer(previous.getBaseCostA(), previous.getCostB(), previous.getResult(), change.uses(),
+                        previous.getMaxUses(), previous.getXp(), previous.getPriceMultiplier(), change.demand());
+                offer.setSpecialPriceDiff(change.specialPriceDiff());
+                offers.set(change.index(), offer);
+            }
+        }
+        return offers;
+    }
+
+    public void handle(Supplier<NetworkEvent.Context> context) {
+        DistExecutor.unsafeRunWhenOn(Dist.CLIENT, () -> () -> ClientMerchantOffers.handle(this));
+    }
+
+    public int getContainerId() {
+        return containerId;
+    }
+
+    public UUID getVillager() {
+        return villager;
+    }
+
+    public int getBaseVersion() {
+        return baseVersion;
+    }
+
+    public int getVersion() {
+        return version;
+    }
+
+    public int getVillagerLevel() {
+        return villagerLevel;
+    }
+
+    public int getVillagerXp() {
+        return villagerXp;
+    }
+
+    public boolean showProgress() {
+        return showProgress;
+    }
+
+    public boolean canRestock() {
+        return canRestock;
+    }
+}
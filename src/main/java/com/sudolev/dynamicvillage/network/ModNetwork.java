@@ -0,0 +1,33 @@
+package com.sudolev.dynamicvillage.network;
+
+import com.sudolev.dynamicvillage.VillageLife;
+import net.minecraft.resources.ResourceLocation;
+import net.minecraft.server.level.ServerPlayer;
+import net.minecraftforge.network.NetworkDirection;
+import net.minecraftforge.network.NetworkRegistry;
+import net.minecraftforge.network.simple.SimpleChannel;
+
+// Optional on both sides, players and servers without it fall back to vanilla packets
+public class ModNetwork {
+    private static final String PROTOCOL_VERSION = "1";
+
+    public static final SimpleChannel CHANNEL = NetworkRegistry.newSimpleChannel(new ResourceLocation(VillageLife.MODID, "main"),
+            () -> PROTOCOL_VERSION, NetworkRegistry.acceptMissingOr(PROTOCOL_VERSION), NetworkRegistry.acceptMissingOr(PROTOCOL_VERSION));
+
+    public static void register() {
+        CHANNEL.messageBuilder(MerchantOffersDeltaPacket.class, 0, NetworkDirection.PLAY_TO_CLIENT)
+                .encoder(MerchantOffersDeltaPacket::encode)
+                .decoder(MerchantOffersDeltaPacket::new)
+                .consumerMainThread(MerchantOffersDeltaPacket::handle)
+                .add();
+        CHANNEL.messageBuilder(RequestOffersPacket.class, 1, NetworkDirection.PLAY_TO_SERVER)
+                .encoder(RequestOffersPacket::encode)
+                .decoder(RequestOffersPacket::new)
+                .consumerMainThread(RequestOffersPacket::handle)
+                .add();
+    }
+
+    public static boolean isPresent(ServerPlayer player) {
+        return CHANNEL.isRemotePresent(player.connection.connection);
+    }
+}
@@ -0,0 +1,32 @@
+package com.sudolev.dynamicvillage.network;
+
+import net.minecraft.network.FriendlyByteBuf;
+import net.minecraft.server.level.ServerPlayer;
+import net.minecraftforge.network.NetworkEvent;
+
+import java.util.UUID;
+import java.util.function.Supplier;
+
+// Sent by a client that got a delta against offers it no longer has cached
+public class RequestOffersPacket {
+    private final UUID villager;
+
+    public RequestOffersPacket(UUID villager) {
+        this.villager = villager;
+    }
+
+    public RequestOffersPacket(FriendlyByteBuf buf) {
+        this.villager = buf.readUUID();
+    }
+
+    public void encode(FriendlyByteBuf buf) {
+        buf.writeUUID(villager);
+    }
+
+    public void handle(Supplier<NetworkEvent.Context> context) {
+        ServerPlayer player = context.get().getSender();
+        if (player != null) {
+            MerchantOfferSync.resend(player, villager);
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package com.sudolev.dynamicvillage.stats;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+
+// LongAdders by key, counting from worldgen and server threads alike without contending on one value
+public class KeyedCounter {
+    private final ConcurrentMap<String, LongAdder> counters = new ConcurrentHashMap<>();
+
+    public void increment(String key) {
+        add(key, 1);
+    }
+
+    public void add(String key, long amount) {
+        LongAdder counter = counters.get(key);
+        if (counter == null) {
+            counter = counters.computeIfAbsent(key, missing -> new LongAdder());
+        }
+        counter.add(amount);
+    }
+
+    public long get(String key) {
+        LongAdder counter = counters.get(key);
+        return counter == null ? 0 : counter.sum();
+    }
+
+    public long total() {
+        return counters.values().stream().mapToLong(LongAdder::sum).sum();
+    }
+
+    public Map<String, Long> snapshot() {
+        Map<String, Long> snapshot = new TreeMap<>();
+        counters.forEach((key, counter) -> snapshot.put(key, counter.sum()));
+        return snapshot;
+    }
+
+    public void reset() {
+        counters.values().forEach(LongAdder::reset);
+    }
+}
@@ -0,0 +1,220 @@
+package com.sudolev.dynamicvillage.stats;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import com.sudolev.dynamicvillage.mixin.SectionStorageAccessor;
+import com.sudolev.dynamicvillage.villager.ModVillagers;
+import it.unimi.dsi.fastutil.objects.Object2LongOpenHashMap;
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.GlobalPos;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.world.entity.EntityType;
+import net.minecraft.world.entity.ai.memory.MemoryModuleType;
+import net.minecraft.world.entity.ai.village.poi.PoiManager;
+import net.minecraft.world.entity.ai.village.poi.PoiSection;
+import net.minecraft.world.entity.npc.Villager;
+import net.minecraftforge.registries.RegistryObject;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * A snapshot of {@link VillageStats} together with the villagers and job sites that are loaded right now. Villages are
+ * told apart by the meeting point their villagers remember; villagers without one are only counted per profession.
+ */
+public class StatsReport {
+    public record ProfessionRow(String profession, boolean ours, int villagers, long tradesRolled, long restocks,
+                                long aiSteps, long aiStepNanos) {
+    }
+
+    public record JobSiteRow(String poiType, int loaded, int occupied, long added, long removed, long claimed, long released) {
+    }
+
+    public record VillageRow(GlobalPos meetingPoint, Map<String, Integer> villagers, long aiStepNanos) {
+        public int villagerCount() {
+            return villagers.values().stream().mapToInt(Integer::intValue).sum();
+        }
+    }
+
+    private final long sinceMillis;
+    private final long millis;
+    private final int ticks;
+    private final List<ProfessionRow> professions;
+    private final List<JobSiteRow> jobSites;
+    private final Map<String, Long> piecesByBiome;
+    private final List<VillageRow> villages;
+
+    private StatsReport(long sinceMillis, long millis, int ticks, List<ProfessionRow> professions, List<JobSiteRow> jobSites,
+                        Map<String, Long> piecesByBiome, List<VillageRow> villages) {
+        this.sinceMillis = sinceMillis;
+        this.millis = millis;
+        this.ticks = ticks;
+        this.professions = professions;
+        this.jobSites = jobSites;
+        this.piecesByBiome = piecesByBiome;
+        this.villages = villages;
+    }
+
+    public static StatsReport collect(MinecraftServer server) {
+        Map<String, Integer> villagersByProfession = new TreeMap<>();
+        Map<GlobalPos, Map<String, Integer>> villagersByVillage = new LinkedHashMap<>();
+        Object2LongOpenHashMap<GlobalPos> aiStepNanosByVillage = new Object2LongOpenHashMap<>();
+        Map<String, int[]> loadedJobSites = new TreeMap<>();
+
+        for (ServerLevel level : server.getAllLevels()) {
+            for (Villager villager : level.getEntities(EntityType.VILLAGER, entity -> true)) {
+                String profession = villager.getVillagerData().getProfession().name();
+                villagersByProfession.merge(profession, 1, Integer::sum);
+
+                Optional<GlobalPos> meetingPoint = villager.getBrain().getMemory(MemoryModuleType.MEETING_POINT);
+                if (meetingPoint.isPresent()) {
+                    villagersByVillage.computeIfAbsent(meetingPoint.get(), pos -> new TreeMap<>()).merge(profession, 1, Integer::sum);
+                    aiStepNanosByVillage.addTo(meetingPoint.get(), ((VillagerStatsHolder) villager).dynamicvillage$getAiStepNanos());
+                }
+            }
+
+            countLoadedJobSites(level.getPoiManager(), loadedJobSites);
+        }
+
+        Set<String> ours = Stream.of(ModVillagers.MINER, ModVillagers.MECHANICAL_ENGINEER, ModVillagers.HYDRAULIC_ENGINEER,
+                ModVillagers.TRAIN_MECHANIC).map(profession -> profession.get().name()).collect(Collectors.toSet());
+        Set<String> professionNames = new TreeSet<>(villagersByProfession.keySet());
+        professionNames.addAll(ours);
+        professionNames.addAll(VillageStats.AI_STEPS.snapshot().keySet());
+        List<ProfessionRow> professions = new ArrayList<>();
+        for (String profession : professionNames) {
+            professions.add(new ProfessionRow(profession, ours.contains(profession), villagersByProfession.getOrDefault(profession, 0),
+                    VillageStats.TRADES_ROLLED.get(profession), VillageStats.RESTOCKS.get(profession),
+                    VillageStats.AI_STEPS.get(profession), VillageStats.AI_STEP_NANOS.get(profession)));
+        }
+        professions.sort(Comparator.comparing((ProfessionRow row) -> !row.ours()).thenComparing(ProfessionRow::profession));
+
+        List<JobSiteRow> jobSites = new ArrayList<>();
+        for (RegistryObject<?> poiType : List.of(ModVillagers.CREATE_MINER_POI, ModVillagers.CREATE_ENGINEER_POI,
+                ModVillagers.CREATE_HYDRAULIC_ENGINEER_POI, ModVillagers.CREATE_MECHANIC_POI)) {
+            String id = poiType.getId().toString();
+            int[] loaded = loadedJobSites.getOrDefault(id, new int[2]);
+            jobSites.add(new JobSiteRow(id, loaded[0], loaded[1], VillageStats.JOB_SITES_ADDED.get(id), VillageStats.JOB_SITES_REMOVED.get(id),
+                    VillageStats.JOB_SITES_CLAIMED.get(id), VillageStats.JOB_SITES_RELEASED.get(id)));
+        }
+
+        List<VillageRow> villages = new ArrayList<>();
+        villagersByVillage.forEach((meetingPoint, villagers) ->
+                villages.add(new VillageRow(meetingPoint, villagers, aiStepNanosByVillage.getLong(meetingPoint))));
+        villages.sort(Comparator.comparingLong(VillageRow::aiStepNanos).reversed());
+
+        long sinceMillis = VillageStats.getSinceMillis();
+        return new StatsReport(sinceMillis, System.currentTimeMillis() - sinceMillis, server.getTickCount() - VillageStats.getSinceTick(),
+                professions, jobSites, VillageStats.PIECES_PLACED.snapshot(), villages);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static void countLoadedJobSites(PoiManager poiManager, Map<String, int[]> loadedJobSites) {
+        for (Optional<PoiSection> section : ((SectionStorageAccessor<PoiSection>) poiManager).dynamicvillage$getStorage().values()) {
+            if (section.isEmpty()) continue;
+            section.get().getRecords(ModVillagers.JOB_SITES, PoiManager.Occupancy.ANY).forEach(record ->
+                    record.getPoiType().unwrapKey().ifPresent(key -> {
+                        int[] counts = loadedJobSites.computeIfAbsent(key.location().toString(), id -> new int[2]);
+                        counts[0]++;
+                        if (record.isOccupied()) counts[1]++;
+                    }));
+        }
+    }
+
+    public long getMillis() {
+        return millis;
+    }
+
+    public int getTicks() {
+        return ticks;
+    }
+
+    public List<ProfessionRow> getProfessions() {
+        return professions;
+    }
+
+    public List<JobSiteRow> getJobSites() {
+        return jobSites;
+    }
+
+    public Map<String, Long> getPiecesByBiome() {
+        return piecesByBiome;
+    }
+
+    public List<VillageRow> getVillages() {
+        return villages;
+    }
+
+    // Average AI cost per server tick, summed over all villagers it covers
+    public double millisPerTick(long nanos) {
+        return ticks <= 0 ? 0 : nanos / 1.0E6D / ticks;
+    }
+
+    public JsonObject toJson() {
+        JsonObject report = new JsonObject();
+        report.addProperty("since", Instant.ofEpochMilli(sinceMillis).toString());
+        report.addProperty("seconds", millis / 1000.0D);
+        report.addProperty("ticks", ticks);
+
+        JsonObject professionsJson = new JsonObject();
+        for (ProfessionRow row : professions) {
+            JsonObject profession = new JsonObject();
+            profession.addProperty("dynamicvillage", row.ours());
+            profession.addProperty("loadedVillagers", row.villagers());
+            profession.addProperty("tradesRolled", row.tradesRolled());
+            profession.addProperty("restocks", row.restocks());
+            profession.addProperty("aiSteps", row.aiSteps());
+            profession.addProperty("aiStepMillis", row.aiStepNanos() / 1.0E6D);
+            profession.addProperty("aiMillisPerTick", millisPerTick(row.aiStepNanos()));
+            professionsJson.add(row.profession(), profession);
+        }
+        report.add("professions", professionsJson);
+
+        JsonObject jobSitesJson = new JsonObject();
+        for (JobSiteRow row : jobSites) {
+            JsonObject jobSite = new JsonObject();
+            jobSite.addProperty("loaded", row.loaded());
+            jobSite.addProperty("occupied", row.occupied());
+            jobSite.addProperty("added", row.added());
+            jobSite.addProperty("removed", row.removed());
+            jobSite.addProperty("claimed", row.claimed());
+            jobSite.addProperty("released", row.released());
+            jobSitesJson.add(row.poiType(), jobSite);
+        }
+        report.add("jobSites", jobSitesJson);
+
+        JsonObject piecesJson = new JsonObject();
+        piecesByBiome.forEach(piecesJson::addProperty);
+        report.add("piecesPlacedByBiome", piecesJson);
+
+        JsonArray villagesJson = new JsonArray();
+        for (VillageRow row : villages) {
+            JsonObject village = new JsonObject();
+            village.addProperty("dimension", row.meetingPoint().dimension().location().toString());
+            BlockPos pos = row.meetingPoint().pos();
+            JsonArray meetingPoint = new JsonArray();
+            meetingPoint.add(pos.getX());
+            meetingPoint.add(pos.getY());
+            meetingPoint.add(pos.getZ());
+            village.add("meetingPoint", meetingPoint);
+            JsonObject villagers = new JsonObject();
+            row.villagers().forEach(villagers::addProperty);
+            village.add("villagers", villagers);
+            village.addProperty("aiStepMillis", row.aiStepNanos() / 1.0E6D);
+            villagesJson.add(village);
+        }
+        report.add("villages", villagesJson);
+        return report;
+    }
+}
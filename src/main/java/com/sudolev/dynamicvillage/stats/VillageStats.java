@@ -0,0 +1,112 @@
+package com.sudolev.dynamicvillage.stats;
+
+import com.sudolev.dynamicvillage.VillageLife;
+import com.sudolev.dynamicvillage.config.ModCommonConfigs;
+import com.sudolev.dynamicvillage.villager.ModVillagers;
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.Holder;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.world.entity.Entity;
+import net.minecraft.world.entity.EntityType;
+import net.minecraft.world.entity.ai.village.poi.PoiType;
+import net.minecraft.world.entity.npc.VillagerDataHolder;
+import net.minecraft.world.entity.npc.VillagerProfession;
+import net.minecraft.world.level.WorldGenLevel;
+import net.minecraftforge.event.server.ServerAboutToStartEvent;
+import net.minecraftforge.eventbus.api.SubscribeEvent;
+import net.minecraftforge.fml.common.Mod;
+
+/**
+ * Counters behind {@code /dynamicvillage stats}. Everything here is hit from villager ticks or worldgen threads, so it
+ * only ever adds to {@link KeyedCounter}s; the command reads them and the loaded villagers and POIs on the server thread.
+ * Professions are keyed by name, POI types and biomes by registry id. Villager AI, restocks and trade updates are only
+ * timed while {@link #isTiming()}, either from profileVillagerAi or turned on by the command or a benchmark.
+ */
+@Mod.EventBusSubscriber(modid = VillageLife.MODID)
+public class VillageStats {
+    public static final KeyedCounter TRADES_ROLLED = new KeyedCounter();
+    public static final KeyedCounter RESTOCKS = new KeyedCounter();
+    public static final KeyedCounter RESTOCK_NANOS = new KeyedCounter();
+    public static final KeyedCounter TRADE_UPDATE_NANOS = new KeyedCounter();
+    public static final KeyedCounter AI_STEPS = new KeyedCounter();
+    public static final KeyedCounter AI_STEP_NANOS = new KeyedCounter();
+
+    public static final KeyedCounter JOB_SITES_ADDED = new KeyedCounter();
+    public static final KeyedCounter JOB_SITES_REMOVED = new KeyedCounter();
+    public static final KeyedCounter JOB_SITES_CLAIMED = new KeyedCounter();
+    public static final KeyedCounter JOB_SITES_RELEASED = new KeyedCounter();
+
+    public static final KeyedCounter PIECES_PLACED = new KeyedCounter();
+
+    private static final KeyedCounter[] COUNTERS = {TRADES_ROLLED, RESTOCKS, RESTOCK_NANOS, TRADE_UPDATE_NANOS, AI_STEPS,
+            AI_STEP_NANOS, JOB_SITES_ADDED, JOB_SITES_REMOVED, JOB_SITES_CLAIMED, JOB_SITES_RELEASED, PIECES_PLACED};
+
+    private static volatile long sinceMillis = System.currentTimeMillis();
+    private static volatile int sinceTick;
+    private static volatile boolean timing;
+
+    public static void recordTrade(Entity trader) {
+        if (trader instanceof VillagerDataHolder villager) {
+            TRADES_ROLLED.increment(villager.getVillagerData().getProfession().name());
+        }
+    }
+
+    public static void recordRestock(VillagerProfession profession, long nanos) {
+        RESTOCKS.increment(profession.name());
+        RESTOCK_NANOS.add(profession.name(), nanos);
+    }
+
+    public static void recordTradeUpdate(VillagerProfession profession, long nanos) {
+        TRADE_UPDATE_NANOS.add(profession.name(), nanos);
+    }
+
+    public static void recordAiStep(VillagerProfession profession, long nanos) {
+        AI_STEPS.increment(profession.name());
+        AI_STEP_NANOS.add(profession.name(), nanos);
+    }
+
+    public static void recordJobSite(KeyedCounter counter, Holder<PoiType> type) {
+        if (ModVillagers.JOB_SITES.test(type)) {
+            type.unwrapKey().ifPresent(key -> counter.increment(key.location().toString()));
+        }
+    }
+
+    public static void recordPiece(WorldGenLevel level, BlockPos pos) {
+        level.getBiome(pos).unwrapKey().ifPresent(key -> PIECES_PLACED.increment(key.location().toString()));
+    }
+
+    public static boolean isTiming() {
+        return timing;
+    }
+
+    public static void setTiming(boolean enabled) {
+        timing = enabled;
+    }
+
+    public static long getSinceMillis() {
+        return sinceMillis;
+    }
+
+    public static int getSinceTick() {
+        return sinceTick;
+    }
+
+    public static void reset(MinecraftServer server) {
+        for (KeyedCounter counter : COUNTERS) {
+            counter.reset();
+        }
+        for (ServerLevel level : server.getAllLevels()) {
+            level.getEntities(EntityType.VILLAGER, entity -> true)
+                    .forEach(villager -> ((VillagerStatsHolder) villager).dynamicvillage$resetAiStepNanos());
+        }
+        sinceMillis = System.currentTimeMillis();
+        sinceTick = server.getTickCount();
+    }
+
+    @SubscribeEvent
+    public static void onServerAboutToStart(final ServerAboutToStartEvent event) {
+        timing = ModCommonConfigs.PROFILE_VILLAGER_AI.get();
+        reset(event.getServer());
+    }
+}
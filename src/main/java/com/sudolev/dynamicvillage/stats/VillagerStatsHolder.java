@@ -0,0 +1,8 @@
+package com.sudolev.dynamicvillage.stats;
+
+// Implemented on Villager by VillagerMixin
+public interface VillagerStatsHolder {
+    long dynamicvillage$getAiStepNanos();
+
+    void dynamicvillage$resetAiStepNanos();
+}
@@ -0,0 +1,158 @@
+package com.sudolev.dynamicvillage.village;
+
+import com.sudolev.dynamicvillage.VillageLife;
+import com.sudolev.dynamicvillage.config.ModCommonConfigs;
+import com.sudolev.dynamicvillage.mixin.BlockEntityAccessor;
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.longs.LongArrayFIFOQueue;
+import it.unimi.dsi.fastutil.longs.LongIterator;
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
+import it.unimi.dsi.fastutil.longs.LongSet;
+import net.minecraft.core.BlockPos;
+import net.minecraft.nbt.CompoundTag;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.server.level.ServerPlayer;
+import net.minecraft.world.level.ChunkPos;
+import net.minecraft.world.level.block.entity.BlockEntity;
+import net.minecraftforge.event.TickEvent;
+import net.minecraftforge.event.level.ChunkEvent;
+import net.minecraftforge.eventbus.api.SubscribeEvent;
+import net.minecraftforge.fml.common.Mod;
+
+import java.util.List;
+
+/**
+ * Create block entities of our village buildings that don't tick yet, marked by {@link DormantBlockEntityProcessor}.
+ * They register here on their first tick after loading, grouped by village. Once a player comes within
+ * dormantWakeRange of a village, its block entities are woken a few per tick and each sets up its kinetic or fluid
+ * network on its next tick as usual. The mark lives in the block entity's Forge data, so it survives chunk reloads and
+ * restarts. Positions are dropped when their chunk unloads, a village with none left with them. Only used on the server
+ * thread.
+ */
+@Mod.EventBusSubscriber(modid = VillageLife.MODID)
+public class DormantBlockEntities {
+    public static final String TAG = "dynamicvillage_dormant";
+    private static final int CHECK_INTERVAL = 20;
+
+    private static class Village {
+        private final LongSet positions = new LongOpenHashSet();
+        private int minX = Integer.MAX_VALUE, minY = Integer.MAX_VALUE, minZ = Integer.MAX_VALUE;
+        private int maxX = Integer.MIN_VALUE, maxY = Integer.MIN_VALUE, maxZ = Integer.MIN_VALUE;
+
+        private void add(BlockPos pos) {
+            if (!positions.add(pos.asLong())) return;
+            extend(pos.getX(), pos.getY(), pos.getZ());
+        }
+
+        private void extend(int x, int y, int z) {
+            minX = Math.min(minX, x);
+            minY = Math.min(minY, y);
+            minZ = Math.min(minZ, z);
+            maxX = Math.max(maxX, x);
+            maxY = Math.max(maxY, y);
+            maxZ = Math.max(maxZ, z);
+        }
+
+        // Returns whether no positions are left
+        private boolean removeChunk(ChunkPos chunk) {
+            if (chunk.getMaxBlockX() < minX || chunk.getMinBlockX() > maxX || chunk.getMaxBlockZ() < minZ || chunk.getMinBlockZ() > maxZ) {
+                return false;
+            }
+            if (!positions.removeIf(pos -> BlockPos.getX(pos) >> 4 == chunk.x && BlockPos.getZ(pos) >> 4 == chunk.z)) {
+                return false;
+            }
+            minX = minY = minZ = Integer.MAX_VALUE;
+            maxX = maxY = maxZ = Integer.MIN_VALUE;
+            for (LongIterator iterator = positions.iterator(); iterator.hasNext(); ) {
+                long pos = iterator.nextLong();
+                extend(BlockPos.getX(pos), BlockPos.getY(pos), BlockPos.getZ(pos));
+            }
+            return positions.isEmpty();
+        }
+
+        private boolean isNear(List<ServerPlayer> players, int range) {
+            for (ServerPlayer player : players) {
+                if (player.isSpectator()) continue;
+                if (player.getX() >= minX - range && player.getX() <= maxX + 1 + range
+                        && player.getY() >= minY - range && player.getY() <= maxY + 1 + range
+                        && player.getZ() >= minZ - range && player.getZ() <= maxZ + 1 + range) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    private final Long2ObjectMap<Village> villages = new Long2ObjectOpenHashMap<>();
+    private final LongArrayFIFOQueue waking = new LongArrayFIFOQueue();
+
+    public static boolean isDormant(BlockEntity blockEntity, boolean register) {
+        if (!(blockEntity.getLevel() instanceof ServerLevel level)) return false;
+        CompoundTag data = ((BlockEntityAccessor) blockEntity).dynamicvillage$getCustomPersistentData();
+        if (data == null || !data.contains(TAG)) return false;
+
+        if (!ModCommonConfigs.DORMANT_BLOCK_ENTITIES.get()) {
+            wake(blockEntity);
+            return false;
+        }
+        if (register) {
+            ((DormantBlockEntitiesHolder) level).dynamicvillage$getDormantBlockEntities().villages
+                    .computeIfAbsent(data.getLong(TAG), village -> new Village()).add(blockEntity.getBlockPos());
+        }
+        return true;
+    }
+
+    private static void wake(BlockEntity blockEntity) {
+        BlockEntityAccessor accessor = (BlockEntityAccessor) blockEntity;
+        CompoundTag data = accessor.dynamicvillage$getCustomPersistentData();
+        if (data == null) return;
+        data.remove(TAG);
+        if (data.isEmpty()) {
+            accessor.dynamicvillage$setCustomPersistentData(null);
+        }
+        blockEntity.setChanged();
+    }
+
+    private void tick(ServerLevel level) {
+        if (!villages.isEmpty() && level.getGameTime() % CHECK_INTERVAL == 0) {
+            int range = ModCommonConfigs.DORMANT_WAKE_RANGE.get();
+            villages.values().removeIf(village -> {
+                if (!village.isNear(level.players(), range)) return false;
+                for (LongIterator iterator = village.positions.iterator(); iterator.hasNext(); ) {
+                    waking.enqueue(iterator.nextLong());
+                }
+                return true;
+            });
+        }
+
+        for (int i = ModCommonConfigs.DORMANT_WAKE_PER_TICK.get(); i > 0 && !waking.isEmpty(); i--) {
+            BlockPos pos = BlockPos.of(waking.dequeueLong());
+            // Block entities in unloaded chunks register again when they load
+            if (!level.isLoaded(pos)) continue;
+            BlockEntity blockEntity = level.getBlockEntity(pos);
+            if (blockEntity != null) {
+                wake(blockEntity);
+            }
+        }
+    }
+
+    // Block entities register again on their next tick after the chunk loads
+    @SubscribeEvent
+    public static void onChunkUnload(final ChunkEvent.Unload event) {
+        if (event.getLevel() instanceof ServerLevel level) {
+            DormantBlockEntities dormant = ((DormantBlockEntitiesHolder) level).dynamicvillage$getDormantBlockEntities();
+            if (!dormant.villages.isEmpty()) {
+                ChunkPos chunk = event.getChunk().getPos();
+                dormant.villages.values().removeIf(village -> village.removeChunk(chunk));
+            }
+        }
+    }
+
+    @SubscribeEvent
+    public static void onLevelTick(final TickEvent.LevelTickEvent event) {
+        if (event.phase == TickEvent.Phase.END && event.level instanceof ServerLevel level) {
+            ((DormantBlockEntitiesHolder) level).dynamicvillage$getDormantBlockEntities().tick(level);
+        }
+    }
+}
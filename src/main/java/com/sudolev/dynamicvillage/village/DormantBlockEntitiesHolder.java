@@ -0,0 +1,6 @@
+package com.sudolev.dynamicvillage.village;
+
+// Implemented on ServerLevel by ServerLevelMixin
+public interface DormantBlockEntitiesHolder {
+    DormantBlockEntities dynamicvillage$getDormantBlockEntities();
+}
@@ -0,0 +1,71 @@
+package com.sudolev.dynamicvillage.village;
+
+import com.mojang.serialization.Codec;
+import it.unimi.dsi.fastutil.longs.LongSet;
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.Registry;
+import net.minecraft.core.SectionPos;
+import net.minecraft.nbt.CompoundTag;
+import net.minecraft.tags.StructureTags;
+import net.minecraft.world.level.ChunkPos;
+import net.minecraft.world.level.LevelReader;
+import net.minecraft.world.level.ServerLevelAccessor;
+import net.minecraft.world.level.levelgen.structure.Structure;
+import net.minecraft.world.level.levelgen.structure.templatesystem.StructurePlaceSettings;
+import net.minecraft.world.level.levelgen.structure.templatesystem.StructureProcessor;
+import net.minecraft.world.level.levelgen.structure.templatesystem.StructureProcessorType;
+import net.minecraft.world.level.levelgen.structure.templatesystem.StructureTemplate;
+
+import java.util.Map;
+
+/**
+ * Marks the Create block entities of a template as dormant for {@link DormantBlockEntities}. The mark holds the start
+ * chunk of the village being placed, so the block entities of one village wake up together.
+ */
+public class DormantBlockEntityProcessor extends StructureProcessor {
+    public static final DormantBlockEntityProcessor INSTANCE = new DormantBlockEntityProcessor();
+    public static final Codec<DormantBlockEntityProcessor> CODEC = Codec.unit(INSTANCE);
+
+    @Override
+    public StructureTemplate.StructureBlockInfo processBlock(LevelReader level, BlockPos offset, BlockPos pos,
+                                                            StructureTemplate.StructureBlockInfo blockInfo,
+                                                            StructureTemplate.StructureBlockInfo relativeBlockInfo,
+                                                            StructurePlaceSettings settings) {
+        if (relativeBlockInfo.nbt == null || !relativeBlockInfo.nbt.getString("id").startsWith("create:")) return relativeBlockInfo;
+        // Blocks outside the chunk being placed are dropped after processing, their chunk may not be reachable from here
+        if (settings.getBoundingBox() != null && !settings.getBoundingBox().isInside(relativeBlockInfo.pos)) return relativeBlockInfo;
+
+        CompoundTag nbt = relativeBlockInfo.nbt.copy();
+        CompoundTag forgeData = nbt.getCompound("ForgeData");
+        forgeData.putLong(DormantBlockEntities.TAG, getVillage(level, relativeBlockInfo.pos));
+        nbt.put("ForgeData", forgeData);
+        return new StructureTemplate.StructureBlockInfo(relativeBlockInfo.pos, relativeBlockInfo.state, nbt);
+    }
+
+    private static long getVillage(LevelReader level, BlockPos pos) {
+        if (!(level instanceof ServerLevelAccessor serverLevel)) return getChunk(pos);
+
+        Registry<Structure> structures = serverLevel.getLevel().registryAccess().registryOrThrow(Registry.STRUCTURE_REGISTRY);
+        long village = Long.MAX_VALUE;
+        for (Map.Entry<Structure, LongSet> references : level.getChunk(pos).getAllReferences().entrySet()) {
+            boolean isVillage = structures.getResourceKey(references.getKey()).flatMap(structures::getHolder)
+                    .filter(structure -> structure.is(StructureTags.VILLAGE)).isPresent();
+            if (isVillage) {
+                for (long start : references.getValue()) {
+                    village = Math.min(village, start);
+                }
+            }
+        }
+        // Pieces outside of a village wake up per chunk
+        return village == Long.MAX_VALUE ? getChunk(pos) : village;
+    }
+
+    private static long getChunk(BlockPos pos) {
+        return ChunkPos.asLong(SectionPos.blockToSectionCoord(pos.getX()), SectionPos.blockToSectionCoord(pos.getZ()));
+    }
+
+    @Override
+    protected StructureProcessorType<?> getType() {
+        return ModStructureProcessors.DORMANT_BLOCK_ENTITIES.get();
+    }
+}
@@ -0,0 +1,19 @@
+package com.sudolev.dynamicvillage.village;
+
+import com.mojang.datafixers.util.Pair;
+import net.minecraft.world.level.levelgen.structure.pools.StructurePoolElement;
+
+import javax.annotation.Nullable;
+import java.util.List;
+
+// Implemented on StructureTemplatePool by StructureTemplatePoolMixin
+public interface InjectedTemplatePool {
+    // What the pool held before the first injection, null while nothing was injected into it
+    @Nullable
+    Original dynamicvillage$getOriginal();
+
+    void dynamicvillage$setOriginal(Original original);
+
+    record Original(List<Pair<StructurePoolElement, Integer>> rawTemplates, List<StructurePoolElement> templates) {
+    }
+}
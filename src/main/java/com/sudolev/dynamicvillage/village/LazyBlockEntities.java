@@ -0,0 +1,61 @@
+package com.sudolev.dynamicvillage.village;
+
+import com.sudolev.dynamicvillage.config.ModCommonConfigs;
+import net.minecraft.core.BlockPos;
+import net.minecraft.nbt.CompoundTag;
+import net.minecraft.world.level.LevelAccessor;
+import net.minecraft.world.level.block.entity.BlockEntity;
+import net.minecraft.world.level.chunk.ChunkAccess;
+import net.minecraft.world.level.chunk.ImposterProtoChunk;
+import net.minecraft.world.level.chunk.ProtoChunk;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Keeps the block entities of our pieces placed during worldgen as their template data in the chunk instead of loading
+ * them at placement. The chunk saves that data as it is, without the defaults the packaged templates leave out, and
+ * the block entity is only built from it, filling in its own defaults, when the chunk first loads as a full chunk or
+ * something reads the block entity before that. Pieces placed into loaded chunks, like by /place, load as usual.
+ */
+public class LazyBlockEntities {
+    private static final ThreadLocal<List<CompoundTag>> deferred = new ThreadLocal<>();
+
+    public static void begin() {
+        if (ModCommonConfigs.LAZY_BLOCK_ENTITIES.get()) {
+            deferred.set(new ArrayList<>());
+        }
+    }
+
+    // Called from StructureTemplate#placeInWorld instead of BlockEntity#load
+    public static void load(LevelAccessor level, BlockEntity blockEntity, CompoundTag nbt) {
+        List<CompoundTag> pending = deferred.get();
+        BlockPos pos = blockEntity.getBlockPos();
+        if (pending == null || !nbt.contains("id") || !isProtoChunk(level.getChunk(pos))) {
+            blockEntity.load(nbt);
+            return;
+        }
+        nbt.putInt("x", pos.getX());
+        nbt.putInt("y", pos.getY());
+        nbt.putInt("z", pos.getZ());
+        pending.add(nbt);
+    }
+
+    // The template still reads the block entities it placed after loading them, so they only become chunk data here
+    public static void end(LevelAccessor level) {
+        List<CompoundTag> pending = deferred.get();
+        if (pending == null) return;
+        deferred.remove();
+
+        for (CompoundTag nbt : pending) {
+            BlockPos pos = BlockEntity.getPosFromTag(nbt);
+            ChunkAccess chunk = level.getChunk(pos);
+            chunk.removeBlockEntity(pos);
+            chunk.setBlockEntityNbt(nbt);
+        }
+    }
+
+    private static boolean isProtoChunk(ChunkAccess chunk) {
+        return chunk instanceof ProtoChunk && !(chunk instanceof ImposterProtoChunk);
+    }
+}
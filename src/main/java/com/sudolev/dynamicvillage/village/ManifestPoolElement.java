@@ -0,0 +1,137 @@
+package com.sudolev.dynamicvillage.village;
+
+import com.mojang.datafixers.util.Either;
+import com.mojang.serialization.Codec;
+import com.mojang.serialization.codecs.RecordCodecBuilder;
+import com.sudolev.dynamicvillage.config.ModCommonConfigs;
+import com.sudolev.dynamicvillage.jfr.PiecePlacementEvent;
+import com.sudolev.dynamicvillage.stats.VillageStats;
+import it.unimi.dsi.fastutil.objects.ObjectArrayList;
+import net.minecraft.Util;
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.Holder;
+import net.minecraft.core.Vec3i;
+import net.minecraft.resources.ResourceLocation;
+import net.minecraft.util.RandomSource;
+import net.minecraft.world.level.StructureManager;
+import net.minecraft.world.level.WorldGenLevel;
+import net.minecraft.world.level.block.Mirror;
+import net.minecraft.world.level.block.Rotation;
+import net.minecraft.world.level.chunk.ChunkGenerator;
+import net.minecraft.world.level.levelgen.structure.BoundingBox;
+import net.minecraft.world.level.levelgen.structure.pools.LegacySinglePoolElement;
+import net.minecraft.world.level.levelgen.structure.pools.StructurePoolElementType;
+import net.minecraft.world.level.levelgen.structure.pools.StructureTemplatePool;
+import net.minecraft.world.level.levelgen.structure.templatesystem.StructurePlaceSettings;
+import net.minecraft.world.level.levelgen.structure.templatesystem.StructureProcessorList;
+import net.minecraft.world.level.levelgen.structure.templatesystem.StructureTemplate;
+import net.minecraft.world.level.levelgen.structure.templatesystem.StructureTemplateManager;
+
+import javax.annotation.Nullable;
+import java.util.List;
+
+/**
+ * Legacy pool element that answers jigsaw placement from the {@link PieceManifest}. Trying a piece that then doesn't
+ * fit costs no template load, the template is only read once the piece is placed. Pieces missing from the manifest
+ * fall back to their template.
+ */
+public class ManifestPoolElement extends LegacySinglePoolElement {
+    public static final Codec<ManifestPoolElement> CODEC = RecordCodecBuilder.create(instance ->
+            instance.group(templateCodec(), processorsCodec(), projectionCodec()).apply(instance, ManifestPoolElement::new));
+
+    @Nullable
+    private final ResourceLocation location;
+
+    protected ManifestPoolElement(Either<ResourceLocation, StructureTemplate> template, Holder<StructureProcessorList> processors,
+                                  StructureTemplatePool.Projection projection) {
+        super(template, processors, projection);
+        this.location = template.left().orElse(null);
+    }
+
+    public ManifestPoolElement(ResourceLocation location, Holder<StructureProcessorList> processors, StructureTemplatePool.Projection projection) {
+        this(Either.left(location), processors, projection);
+    }
+
+    @Nullable
+    private PieceManifest.Piece getPiece() {
+        return location == null ? null : PieceManifest.get(location);
+    }
+
+    @Override
+    public Vec3i getSize(StructureTemplateManager structureManager, Rotation rotation) {
+        PieceManifest.Piece piece = getPiece();
+        return piece == null ? super.getSize(structureManager, rotation) : piece.size(rotation);
+    }
+
+    @Override
+    public List<StructureTemplate.StructureBlockInfo> getShuffledJigsawBlocks(StructureTemplateManager structureManager, BlockPos pos,
+                                                                              Rotation rotation, RandomSource random) {
+        PieceManifest.Piece piece = getPiece();
+        if (piece == null) return super.getShuffledJigsawBlocks(structureManager, pos, rotation, random);
+
+        StructurePlaceSettings settings = new StructurePlaceSettings().setRotation(rotation);
+        ObjectArrayList<StructureTemplate.StructureBlockInfo> jigsaws = new ObjectArrayList<>(piece.jigsaws().size());
+        for (StructureTemplate.StructureBlockInfo jigsaw : piece.jigsaws()) {
+            jigsaws.add(new StructureTemplate.StructureBlockInfo(StructureTemplate.calculateRelativePosition(settings, jigsaw.pos).offset(pos),
+                    jigsaw.state.rotate(rotation), jigsaw.nbt));
+        }
+        Util.shuffle(jigsaws, random);
+        return jigsaws;
+    }
+
+    @Override
+    public BoundingBox getBoundingBox(StructureTemplateManager structureManager, BlockPos pos, Rotation rotation) {
+        PieceManifest.Piece piece = getPiece();
+        if (piece == null) return super.getBoundingBox(structureManager, pos, rotation);
+
+        BlockPos corner = new BlockPos(piece.size()).offset(-1, -1, -1);
+        return BoundingBox.fromCorners(StructureTemplate.transform(BlockPos.ZERO, Mirror.NONE, rotation, BlockPos.ZERO),
+                StructureTemplate.transform(corner, Mirror.NONE, rotation, BlockPos.ZERO)).move(pos);
+    }
+
+    @Override
+    protected StructurePlaceSettings getSettings(Rotation rotation, BoundingBox box, boolean keepJigsaws) {
+        StructurePlaceSettings settings = super.getSettings(rotation, box, keepJigsaws);
+        if (ModCommonConfigs.DORMANT_BLOCK_ENTITIES.get()) {
+            settings.addProcessor(DormantBlockEntityProcessor.INSTANCE);
+        }
+        if (ModCommonConfigs.UNLINKED_TRACK_STATIONS.get()) {
+            settings.addProcessor(UnlinkedTrackProcessor.INSTANCE);
+        }
+        return settings;
+    }
+
+    @Override
+    public boolean place(StructureTemplateManager structureManager, WorldGenLevel level, StructureManager structures, ChunkGenerator generator,
+                         BlockPos pos, BlockPos pivot, Rotation rotation, BoundingBox box, RandomSource random, boolean keepJigsaws) {
+        PiecePlacementEvent jfrEvent = new PiecePlacementEvent();
+        jfrEvent.begin();
+        boolean placed;
+        LazyBlockEntities.begin();
+        try {
+            placed = super.place(structureManager, level, structures, generator, pos, pivot, rotation, box, random, keepJigsaws);
+        } finally {
+            LazyBlockEntities.end(level);
+        }
+        if (placed) {
+            VillageStats.recordPiece(level, pos);
+        }
+        if (jfrEvent.shouldCommit()) {
+            jfrEvent.template = String.valueOf(location);
+            jfrEvent.rotation = rotation.getSerializedName();
+            jfrEvent.placed = placed;
+            jfrEvent.commit();
+        }
+        return placed;
+    }
+
+    @Override
+    public StructurePoolElementType<?> getType() {
+        return ModPoolElementTypes.MANIFEST_SINGLE.get();
+    }
+
+    @Override
+    public String toString() {
+        return "ManifestSingle[" + template + "]";
+    }
+}
@@ -0,0 +1,20 @@
+package com.sudolev.dynamicvillage.village;
+
+import com.sudolev.dynamicvillage.VillageLife;
+import net.minecraft.core.Registry;
+import net.minecraft.world.level.levelgen.structure.pools.StructurePoolElementType;
+import net.minecraftforge.eventbus.api.IEventBus;
+import net.minecraftforge.registries.DeferredRegister;
+import net.minecraftforge.registries.RegistryObject;
+
+public class ModPoolElementTypes {
+    public static final DeferredRegister<StructurePoolElementType<?>> POOL_ELEMENT_TYPES =
+            DeferredRegister.create(Registry.STRUCTURE_POOL_ELEMENT_REGISTRY, VillageLife.MODID);
+
+    public static final RegistryObject<StructurePoolElementType<ManifestPoolElement>> MANIFEST_SINGLE =
+            POOL_ELEMENT_TYPES.register("manifest_single_pool_element", () -> () -> ManifestPoolElement.CODEC);
+
+    public static void register(IEventBus eventBus) {
+        POOL_ELEMENT_TYPES.register(eventBus);
+    }
+}
@@ -0,0 +1,24 @@
+package com.sudolev.dynamicvillage.village;
+
+import com.sudolev.dynamicvillage.VillageLife;
+import net.minecraft.core.Registry;
+import net.minecraft.world.level.levelgen.structure.templatesystem.StructureProcessorType;
+import net.minecraftforge.eventbus.api.IEventBus;
+import net.minecraftforge.registries.DeferredRegister;
+import net.minecraftforge.registries.RegistryObject;
+
+public class ModStructureProcessors {
+    public static final DeferredRegister<StructureProcessorType<?>> STRUCTURE_PROCESSORS =
+            DeferredRegister.create(Registry.STRUCTURE_PROCESSOR_REGISTRY, VillageLife.MODID);
+
+    public static final RegistryObject<StructureProcessorType<PaletteSwapProcessor>> PALETTE_SWAP =
+            STRUCTURE_PROCESSORS.register("palette_swap", () -> () -> PaletteSwapProcessor.CODEC);
+    public static final RegistryObject<StructureProcessorType<DormantBlockEntityProcessor>> DORMANT_BLOCK_ENTITIES =
+            STRUCTURE_PROCESSORS.register("dormant_block_entities", () -> () -> DormantBlockEntityProcessor.CODEC);
+    public static final RegistryObject<StructureProcessorType<UnlinkedTrackProcessor>> UNLINKED_TRACKS =
+            STRUCTURE_PROCESSORS.register("unlinked_tracks", () -> () -> UnlinkedTrackProcessor.CODEC);
+
+    public static void register(IEventBus eventBus) {
+        STRUCTURE_PROCESSORS.register(eventBus);
+    }
+}
@@ -0,0 +1,86 @@
+package com.sudolev.dynamicvillage.village;
+
+import com.google.common.collect.ImmutableMap;
+import com.mojang.serialization.Codec;
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.Registry;
+import net.minecraft.world.level.LevelReader;
+import net.minecraft.world.level.block.Block;
+import net.minecraft.world.level.block.state.BlockState;
+import net.minecraft.world.level.block.state.properties.Property;
+import net.minecraft.world.level.levelgen.structure.templatesystem.StructurePlaceSettings;
+import net.minecraft.world.level.levelgen.structure.templatesystem.StructureProcessor;
+import net.minecraft.world.level.levelgen.structure.templatesystem.StructureProcessorType;
+import net.minecraft.world.level.levelgen.structure.templatesystem.StructureTemplate;
+
+import javax.annotation.Nullable;
+import java.util.Map;
+
+/**
+ * Swaps the materials of a template, keeping every block state property the replacement block shares with the
+ * original. Used from a processor list, so a village building can be reused for another biome from a data file:
+ * <pre>
+ * {
+ *   "processor_type": "dynamicvillage:palette_swap",
+ *   "blocks": { "minecraft:oak_planks": "minecraft:spruce_planks" }
+ * }
+ * </pre>
+ * The block map is compiled once into a lookup array indexed by block state id.
+ */
+public class PaletteSwapProcessor extends StructureProcessor {
+    public static final Codec<PaletteSwapProcessor> CODEC = Codec.unboundedMap(Registry.BLOCK.byNameCodec(), Registry.BLOCK.byNameCodec())
+            .fieldOf("blocks").xmap(PaletteSwapProcessor::new, processor -> processor.blocks).codec();
+
+    private final Map<Block, Block> blocks;
+    // Built on first use, block state ids are only final once the registries are frozen
+    @Nullable
+    private volatile BlockState[] lookup;
+
+    public PaletteSwapProcessor(Map<Block, Block> blocks) {
+        this.blocks = ImmutableMap.copyOf(blocks);
+    }
+
+    @Override
+    public StructureTemplate.StructureBlockInfo processBlock(LevelReader level, BlockPos offset, BlockPos pos,
+                                                            StructureTemplate.StructureBlockInfo blockInfo,
+                                                            StructureTemplate.StructureBlockInfo relativeBlockInfo,
+                                                            StructurePlaceSettings settings) {
+        BlockState[] lookup = this.lookup;
+        if (lookup == null) {
+            // Racing worldgen threads build identical arrays, whichever is published last wins
+            lookup = compile();
+            this.lookup = lookup;
+        }
+
+        BlockState swapped = lookup[Block.getId(relativeBlockInfo.state)];
+        return swapped == null ? relativeBlockInfo : new StructureTemplate.StructureBlockInfo(relativeBlockInfo.pos, swapped, relativeBlockInfo.nbt);
+    }
+
+    private BlockState[] compile() {
+        BlockState[] lookup = new BlockState[Block.BLOCK_STATE_REGISTRY.size()];
+        blocks.forEach((from, to) -> {
+            for (BlockState state : from.getStateDefinition().getPossibleStates()) {
+                BlockState swapped = to.defaultBlockState();
+                for (Property<?> property : state.getProperties()) {
+                    swapped = copyProperty(state, swapped, property);
+                }
+                lookup[Block.getId(state)] = swapped;
+            }
+        });
+        return lookup;
+    }
+
+    private static <T extends Comparable<T>> BlockState copyProperty(BlockState from, BlockState to, Property<T> property) {
+        Property<?> target = to.getBlock().getStateDefinition().getProperty(property.getName());
+        return target == null ? to : setValue(to, target, property.getName(from.getValue(property)));
+    }
+
+    private static <T extends Comparable<T>> BlockState setValue(BlockState state, Property<T> property, String value) {
+        return property.getValue(value).map(parsed -> state.setValue(property, parsed)).orElse(state);
+    }
+
+    @Override
+    protected StructureProcessorType<?> getType() {
+        return ModStructureProcessors.PALETTE_SWAP.get();
+    }
+}
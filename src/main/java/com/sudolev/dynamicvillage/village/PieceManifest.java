@@ -0,0 +1,50 @@
+package com.sudolev.dynamicvillage.village;
+
+import com.google.common.collect.ImmutableMap;
+import net.minecraft.core.Vec3i;
+import net.minecraft.resources.ResourceLocation;
+import net.minecraft.world.level.block.Rotation;
+import net.minecraft.world.level.levelgen.structure.templatesystem.StructureTemplate;
+
+import javax.annotation.Nullable;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Size and jigsaw connectors of our structure pieces, generated from the templates by the pieceManifest build task.
+ */
+public class PieceManifest {
+    public static final PieceManifest EMPTY = new PieceManifest(Map.of());
+
+    private static volatile PieceManifest current = EMPTY;
+
+    // Jigsaw positions are relative to the template and sorted the way StructureTemplate sorts its blocks. The saved
+    // bytes are the default block entity fields the packaged template leaves out.
+    public record Piece(Vec3i size, List<StructureTemplate.StructureBlockInfo> jigsaws, int blockEntityBytesSaved) {
+        public Vec3i size(Rotation rotation) {
+            return switch (rotation) {
+                case CLOCKWISE_90, COUNTERCLOCKWISE_90 -> new Vec3i(size.getZ(), size.getY(), size.getX());
+                default -> size;
+            };
+        }
+    }
+
+    private final Map<ResourceLocation, Piece> pieces;
+
+    public PieceManifest(Map<ResourceLocation, Piece> pieces) {
+        this.pieces = ImmutableMap.copyOf(pieces);
+    }
+
+    public int size() {
+        return pieces.size();
+    }
+
+    static void setCurrent(PieceManifest manifest) {
+        current = manifest;
+    }
+
+    @Nullable
+    public static Piece get(ResourceLocation template) {
+        return current.pieces.get(template);
+    }
+}
@@ -0,0 +1,96 @@
+package com.sudolev.dynamicvillage.village;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+import com.mojang.brigadier.exceptions.CommandSyntaxException;
+import com.mojang.logging.LogUtils;
+import com.sudolev.dynamicvillage.VillageLife;
+import net.minecraft.SharedConstants;
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.Vec3i;
+import net.minecraft.nbt.NbtUtils;
+import net.minecraft.nbt.TagParser;
+import net.minecraft.resources.ResourceLocation;
+import net.minecraft.server.packs.resources.Resource;
+import net.minecraft.server.packs.resources.ResourceManager;
+import net.minecraft.server.packs.resources.SimplePreparableReloadListener;
+import net.minecraft.util.GsonHelper;
+import net.minecraft.util.profiling.ProfilerFiller;
+import net.minecraft.world.level.levelgen.structure.templatesystem.StructureTemplate;
+import org.slf4j.Logger;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Loads {@code data/dynamicvillage/piece_manifest.json}. A piece is only kept when its template comes from the same
+ * pack as the manifest and needs no data fixing, so a datapack replacing one of our buildings gets its template read.
+ */
+public class PieceManifestLoader extends SimplePreparableReloadListener<PieceManifest> {
+    private static final Logger LOGGER = LogUtils.getLogger();
+    private static final ResourceLocation LOCATION = new ResourceLocation(VillageLife.MODID, "piece_manifest.json");
+
+    @Override
+    protected PieceManifest prepare(ResourceManager resourceManager, ProfilerFiller profiler) {
+        Optional<Resource> manifest = resourceManager.getResource(LOCATION);
+        if (manifest.isEmpty()) return PieceManifest.EMPTY;
+
+        String packId = manifest.get().sourcePackId();
+        int dataVersion = SharedConstants.getCurrentVersion().getWorldVersion();
+        Map<ResourceLocation, PieceManifest.Piece> pieces = new HashMap<>();
+        int skipped = 0;
+        try (Reader reader = manifest.get().openAsReader()) {
+            JsonObject json = GsonHelper.getAsJsonObject(GsonHelper.parse(reader), "pieces");
+            for (Map.Entry<String, JsonElement> entry : json.entrySet()) {
+                ResourceLocation template = new ResourceLocation(entry.getKey());
+                JsonObject pieceJson = GsonHelper.convertToJsonObject(entry.getValue(), entry.getKey());
+                Optional<Resource> templateResource = resourceManager.getResource(
+                        new ResourceLocation(template.getNamespace(), "structures/" + template.getPath() + ".nbt"));
+                if (GsonHelper.getAsInt(pieceJson, "data_version") != dataVersion
+                        || templateResource.isEmpty() || !templateResource.get().sourcePackId().equals(packId)) {
+                    skipped++;
+                    continue;
+                }
+                pieces.put(template, readPiece(pieceJson));
+            }
+        } catch (IllegalArgumentException | IOException | JsonParseException | CommandSyntaxException exception) {
+            LOGGER.error("Couldn't parse piece manifest from {}", packId, exception);
+            return PieceManifest.EMPTY;
+        }
+        LOGGER.debug("Loaded {} pieces from the piece manifest, {} left to their templates", pieces.size(), skipped);
+        return new PieceManifest(pieces);
+    }
+
+    private static PieceManifest.Piece readPiece(JsonObject json) throws CommandSyntaxException {
+        List<StructureTemplate.StructureBlockInfo> jigsaws = new ArrayList<>();
+        for (JsonElement element : GsonHelper.getAsJsonArray(json, "jigsaws")) {
+            JsonObject jigsaw = GsonHelper.convertToJsonObject(element, "jigsaw");
+            jigsaws.add(new StructureTemplate.StructureBlockInfo(new BlockPos(readVec(jigsaw, "pos")),
+                    NbtUtils.readBlockState(TagParser.parseTag(GsonHelper.getAsString(jigsaw, "state"))),
+                    TagParser.parseTag(GsonHelper.getAsString(jigsaw, "nbt"))));
+        }
+        return new PieceManifest.Piece(readVec(json, "size"), List.copyOf(jigsaws),
+                GsonHelper.getAsInt(json, "block_entity_bytes_saved", 0));
+    }
+
+    private static Vec3i readVec(JsonObject json, String member) {
+        JsonArray array = GsonHelper.getAsJsonArray(json, member);
+        if (array.size() != 3) {
+            throw new JsonParseException("Expected " + member + " to have 3 elements, was " + array.size());
+        }
+        return new Vec3i(GsonHelper.convertToInt(array.get(0), member), GsonHelper.convertToInt(array.get(1), member),
+                GsonHelper.convertToInt(array.get(2), member));
+    }
+
+    @Override
+    protected void apply(PieceManifest manifest, ResourceManager resourceManager, ProfilerFiller profiler) {
+        PieceManifest.setCurrent(manifest);
+    }
+}
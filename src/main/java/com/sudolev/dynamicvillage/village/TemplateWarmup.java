@@ -0,0 +1,103 @@
+package com.sudolev.dynamicvillage.village;
+
+import com.google.common.io.ByteStreams;
+import com.google.common.io.CountingOutputStream;
+import com.mojang.logging.LogUtils;
+import com.sudolev.dynamicvillage.VillageLife;
+import com.sudolev.dynamicvillage.config.ModCommonConfigs;
+import net.minecraft.Util;
+import net.minecraft.nbt.CompoundTag;
+import net.minecraft.resources.ResourceLocation;
+import net.minecraft.world.level.block.Blocks;
+import net.minecraft.world.level.levelgen.structure.templatesystem.StructureTemplate;
+import net.minecraft.world.level.levelgen.structure.templatesystem.StructureTemplateManager;
+import net.minecraftforge.event.server.ServerAboutToStartEvent;
+import net.minecraftforge.eventbus.api.SubscribeEvent;
+import net.minecraftforge.fml.common.Mod;
+import org.slf4j.Logger;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Opt-in warm-up that loads our templates before any chunk generates. The template manager caches them for the
+ * lifetime of the server, and the jigsaw block lookup of each palette is resolved here instead of on a worldgen thread.
+ */
+@Mod.EventBusSubscriber(modid = VillageLife.MODID)
+public class TemplateWarmup {
+    private static final Logger LOGGER = LogUtils.getLogger();
+    // Rough retained size of one block entry: the StructureBlockInfo, its BlockPos and the list slot
+    private static final int BLOCK_INFO_BYTES = 64;
+
+    private record Report(ResourceLocation id, boolean loaded, long nanos, int blocks, int blockEntities, long bytes) {
+    }
+
+    @SubscribeEvent
+    public static void warmUpTemplates(final ServerAboutToStartEvent event) {
+        if (!ModCommonConfigs.WARM_UP_TEMPLATES.get()) return;
+
+        StructureTemplateManager structureManager = event.getServer().getStructureManager();
+        long start = System.nanoTime();
+        List<CompletableFuture<Report>> futures = structureManager.listTemplates()
+                .filter(id -> id.getNamespace().equals(VillageLife.MODID))
+                .map(id -> CompletableFuture.supplyAsync(() -> warmUp(structureManager, id), Util.backgroundExecutor()))
+                .toList();
+        // Joining publishes the warmed palettes to the worldgen threads that start after this event
+        List<Report> reports = futures.stream().map(CompletableFuture::join)
+                .sorted(Comparator.comparingLong(Report::nanos).reversed())
+                .toList();
+        long elapsed = System.nanoTime() - start;
+
+        long totalBytes = reports.stream().mapToLong(Report::bytes).sum();
+        LOGGER.info("Warmed up {} templates in {} ms, ~{} KiB", reports.size(), TimeUnit.NANOSECONDS.toMillis(elapsed), totalBytes / 1024);
+        for (Report report : reports) {
+            if (report.loaded()) {
+                LOGGER.info("  {}: {} ms, {} blocks, {} block entities, ~{} KiB", report.id(),
+                        TimeUnit.NANOSECONDS.toMillis(report.nanos()), report.blocks(), report.blockEntities(), report.bytes() / 1024);
+            } else {
+                LOGGER.warn("  {}: failed to load", report.id());
+            }
+        }
+    }
+
+    private static Report warmUp(StructureTemplateManager structureManager, ResourceLocation id) {
+        long start = System.nanoTime();
+        Optional<StructureTemplate> template = structureManager.get(id);
+        if (template.isEmpty()) {
+            return new Report(id, false, System.nanoTime() - start, 0, 0, 0);
+        }
+
+        for (StructureTemplate.Palette palette : template.get().palettes) {
+            palette.blocks(Blocks.JIGSAW);
+        }
+        long nanos = System.nanoTime() - start;
+
+        int blocks = 0;
+        int blockEntities = 0;
+        long bytes = 0;
+        for (StructureTemplate.Palette palette : template.get().palettes) {
+            for (StructureTemplate.StructureBlockInfo info : palette.blocks()) {
+                blocks++;
+                if (info.nbt != null) {
+                    blockEntities++;
+                    bytes += sizeOf(info.nbt);
+                }
+            }
+        }
+        return new Report(id, true, nanos, blocks, blockEntities, bytes + (long) blocks * BLOCK_INFO_BYTES);
+    }
+
+    private static long sizeOf(CompoundTag tag) {
+        CountingOutputStream counter = new CountingOutputStream(ByteStreams.nullOutputStream());
+        try {
+            tag.write(new DataOutputStream(counter));
+        } catch (IOException ignored) {
+        }
+        return counter.getCount();
+    }
+}
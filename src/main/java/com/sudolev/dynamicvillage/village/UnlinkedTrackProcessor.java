@@ -0,0 +1,40 @@
+package com.sudolev.dynamicvillage.village;
+
+import com.mojang.serialization.Codec;
+import net.minecraft.core.BlockPos;
+import net.minecraft.nbt.CompoundTag;
+import net.minecraft.world.level.LevelReader;
+import net.minecraft.world.level.levelgen.structure.templatesystem.StructurePlaceSettings;
+import net.minecraft.world.level.levelgen.structure.templatesystem.StructureProcessor;
+import net.minecraft.world.level.levelgen.structure.templatesystem.StructureProcessorType;
+import net.minecraft.world.level.levelgen.structure.templatesystem.StructureTemplate;
+
+import java.util.Set;
+
+/**
+ * Marks the train stations and tracks of a template as unlinked for {@link UnlinkedTracks}.
+ */
+public class UnlinkedTrackProcessor extends StructureProcessor {
+    public static final UnlinkedTrackProcessor INSTANCE = new UnlinkedTrackProcessor();
+    public static final Codec<UnlinkedTrackProcessor> CODEC = Codec.unit(INSTANCE);
+    private static final Set<String> TRACK_BLOCK_ENTITIES = Set.of("create:track_station", "create:track");
+
+    @Override
+    public StructureTemplate.StructureBlockInfo processBlock(LevelReader level, BlockPos offset, BlockPos pos,
+                                                            StructureTemplate.StructureBlockInfo blockInfo,
+                                                            StructureTemplate.StructureBlockInfo relativeBlockInfo,
+                                                            StructurePlaceSettings settings) {
+        if (relativeBlockInfo.nbt == null || !TRACK_BLOCK_ENTITIES.contains(relativeBlockInfo.nbt.getString("id"))) return relativeBlockInfo;
+
+        CompoundTag nbt = relativeBlockInfo.nbt.copy();
+        CompoundTag forgeData = nbt.getCompound("ForgeData");
+        forgeData.putBoolean(UnlinkedTracks.TAG, true);
+        nbt.put("ForgeData", forgeData);
+        return new StructureTemplate.StructureBlockInfo(relativeBlockInfo.pos, relativeBlockInfo.state, nbt);
+    }
+
+    @Override
+    protected StructureProcessorType<?> getType() {
+        return ModStructureProcessors.UNLINKED_TRACKS.get();
+    }
+}
@@ -0,0 +1,105 @@
+package com.sudolev.dynamicvillage.village;
+
+import com.simibubi.create.AllBlocks;
+import com.simibubi.create.content.trains.track.TrackPropagator;
+import com.sudolev.dynamicvillage.VillageLife;
+import com.sudolev.dynamicvillage.mixin.BlockEntityAccessor;
+import net.minecraft.core.BlockPos;
+import net.minecraft.nbt.CompoundTag;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.world.entity.player.Player;
+import net.minecraft.world.level.BlockGetter;
+import net.minecraft.world.level.block.entity.BlockEntity;
+import net.minecraftforge.common.util.FakePlayer;
+import net.minecraftforge.event.entity.player.PlayerInteractEvent;
+import net.minecraftforge.event.level.BlockEvent;
+import net.minecraftforge.eventbus.api.EventPriority;
+import net.minecraftforge.eventbus.api.SubscribeEvent;
+import net.minecraftforge.fml.common.Mod;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Train stations and tracks of our village buildings, marked by {@link UnlinkedTrackProcessor}, stay out of Create's
+ * railway graph: their block entities don't tick and the track propagator skips them. The station block is still a
+ * job site. When a player uses one of them or places a block next to one, the marked blocks connected to it are
+ * unmarked and their tracks added to the graph, like tracks a player placed.
+ */
+@Mod.EventBusSubscriber(modid = VillageLife.MODID)
+public class UnlinkedTracks {
+    public static final String TAG = "dynamicvillage_unlinked";
+    // Stations target a track a few blocks away, tracks connect diagonally on slopes
+    private static final int LINK_RANGE = 2;
+    private static final int MAX_LINKED = 512;
+
+    public static boolean isUnlinked(BlockEntity blockEntity) {
+        CompoundTag data = ((BlockEntityAccessor) blockEntity).dynamicvillage$getCustomPersistentData();
+        return data != null && data.contains(TAG);
+    }
+
+    public static boolean isUnlinked(BlockGetter level, BlockPos pos) {
+        BlockEntity blockEntity = level.getBlockEntity(pos);
+        return blockEntity != null && isUnlinked(blockEntity);
+    }
+
+    public static void link(ServerLevel level, BlockPos start) {
+        List<BlockEntity> linked = new ArrayList<>();
+        Set<BlockPos> visited = new HashSet<>();
+        ArrayDeque<BlockPos> queue = new ArrayDeque<>();
+        queue.add(start.immutable());
+        visited.add(start.immutable());
+        while (!queue.isEmpty() && linked.size() < MAX_LINKED) {
+            BlockPos pos = queue.poll();
+            BlockEntity blockEntity = level.getBlockEntity(pos);
+            if (blockEntity == null || !isUnlinked(blockEntity)) continue;
+
+            unmark(blockEntity);
+            linked.add(blockEntity);
+            for (BlockPos neighbour : BlockPos.betweenClosed(pos.offset(-LINK_RANGE, -LINK_RANGE, -LINK_RANGE), pos.offset(LINK_RANGE, LINK_RANGE, LINK_RANGE))) {
+                if (level.isLoaded(neighbour) && visited.add(neighbour.immutable())) {
+                    queue.add(neighbour.immutable());
+                }
+            }
+        }
+
+        // Stations join on their next tick, tracks are propagated once every marked neighbour is unmarked
+        for (BlockEntity blockEntity : linked) {
+            if (AllBlocks.TRACK.has(blockEntity.getBlockState())) {
+                TrackPropagator.onRailAdded(level, blockEntity.getBlockPos(), blockEntity.getBlockState());
+            }
+        }
+    }
+
+    private static void unmark(BlockEntity blockEntity) {
+        BlockEntityAccessor accessor = (BlockEntityAccessor) blockEntity;
+        CompoundTag data = accessor.dynamicvillage$getCustomPersistentData();
+        data.remove(TAG);
+        if (data.isEmpty()) {
+            accessor.dynamicvillage$setCustomPersistentData(null);
+        }
+        blockEntity.setChanged();
+    }
+
+    @SubscribeEvent(priority = EventPriority.LOWEST)
+    public static void onRightClickBlock(final PlayerInteractEvent.RightClickBlock event) {
+        if (event.getLevel() instanceof ServerLevel level && isUnlinked(level, event.getPos())) {
+            link(level, event.getPos());
+        }
+    }
+
+    @SubscribeEvent(priority = EventPriority.LOWEST)
+    public static void onBlockPlaced(final BlockEvent.EntityPlaceEvent event) {
+        if (!(event.getLevel() instanceof ServerLevel level)) return;
+        if (!(event.getEntity() instanceof Player) || event.getEntity() instanceof FakePlayer) return;
+
+        for (BlockPos neighbour : BlockPos.betweenClosed(event.getPos().offset(-1, -1, -1), event.getPos().offset(1, 1, 1))) {
+            if (isUnlinked(level, neighbour)) {
+                link(level, neighbour);
+            }
+        }
+    }
+}
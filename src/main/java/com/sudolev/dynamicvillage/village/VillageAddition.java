@@ -1,116 +1,52 @@
 package com.sudolev.dynamicvillage.village;
 
-import com.mojang.datafixers.util.Pair;
+import com.mojang.logging.LogUtils;
 import com.sudolev.dynamicvillage.VillageLife;
-import net.minecraft.core.Holder;
+import com.sudolev.dynamicvillage.config.ModCommonConfigs;
+import com.sudolev.dynamicvillage.jfr.PoolInjectionEvent;
 import net.minecraft.core.Registry;
-import net.minecraft.resources.ResourceKey;
-import net.minecraft.resources.ResourceLocation;
-import net.minecraft.world.level.levelgen.structure.pools.SinglePoolElement;
-import net.minecraft.world.level.levelgen.structure.pools.StructurePoolElement;
 import net.minecraft.world.level.levelgen.structure.pools.StructureTemplatePool;
 import net.minecraft.world.level.levelgen.structure.templatesystem.StructureProcessorList;
+import net.minecraftforge.event.AddReloadListenerEvent;
 import net.minecraftforge.event.server.ServerAboutToStartEvent;
+import net.minecraftforge.eventbus.api.EventPriority;
 import net.minecraftforge.eventbus.api.SubscribeEvent;
 import net.minecraftforge.fml.common.Mod;
-
-import java.util.ArrayList;
-import java.util.List;
+import org.slf4j.Logger;
 
 @Mod.EventBusSubscriber(modid = VillageLife.MODID)
 public class VillageAddition {
-    private static final ResourceKey<StructureProcessorList> EMPTY_PROCESSOR_LIST_KEY = ResourceKey.create(
-            Registry.PROCESSOR_LIST_REGISTRY, new ResourceLocation("minecraft", "empty"));
-    private static void addBuildingToPool(Registry<StructureTemplatePool> templatePoolRegistry,
-                                          Registry<StructureProcessorList> processorListRegistry,
-                                          ResourceLocation poolRL,
-                                          String nbtPieceRL,
-                                          int weight) {
-
-        Holder<StructureProcessorList> emptyProcessorList = processorListRegistry.getHolderOrThrow(EMPTY_PROCESSOR_LIST_KEY);
-
-        StructureTemplatePool pool = templatePoolRegistry.get(poolRL);
-        if (pool == null) return;
-
-        // Use .legacy( for villages/outposts and .single( for everything else
-        SinglePoolElement piece = SinglePoolElement.legacy(nbtPieceRL,
-                emptyProcessorList).apply(StructureTemplatePool.Projection.RIGID);
+    private static final Logger LOGGER = LogUtils.getLogger();
+    private static volatile VillageInjectionPlan plan = VillageInjectionPlan.EMPTY;
 
-        for (int i = 0; i < weight; i++) {
-            pool.templates.add(piece);
-        }
-
-        List<Pair<StructurePoolElement, Integer>> listOfPieceEntries = new ArrayList<>(pool.rawTemplates);
-        listOfPieceEntries.add(new Pair<>(piece, weight));
-        pool.rawTemplates = listOfPieceEntries;
+    static void setPlan(VillageInjectionPlan newPlan) {
+        plan = newPlan;
+        LOGGER.debug("Loaded {} village buildings for {} template pools", newPlan.size(), newPlan.getEntriesByPool().size());
     }
 
     @SubscribeEvent
+    public static void addReloadListener(final AddReloadListenerEvent event) {
+        event.addListener(new VillageInjectionLoader());
+        event.addListener(new PieceManifestLoader());
+    }
+
+    // Ahead of other mods adding to the same pools, so going back to the original pools doesn't drop their additions
+    @SubscribeEvent(priority = EventPriority.HIGHEST)
     public static void addNewVillageBuilding(final ServerAboutToStartEvent event) {
         Registry<StructureTemplatePool> templatePoolRegistry = event.getServer().registryAccess().registry(Registry.TEMPLATE_POOL_REGISTRY).orElseThrow();
         Registry<StructureProcessorList> processorListRegistry = event.getServer().registryAccess().registry(Registry.PROCESSOR_LIST_REGISTRY).orElseThrow();
-        addBuildingToPool(templatePoolRegistry, processorListRegistry,
-                new ResourceLocation("minecraft:village/plains/houses"),
-                "dynamicvillage:plains/plains_mech", 20);
-        addBuildingToPool(templatePoolRegistry, processorListRegistry,
-                new ResourceLocation("minecraft:village/plains/houses"),
-                "dynamicvillage:plains/plains_miner", 20);
-        addBuildingToPool(templatePoolRegistry, processorListRegistry,
-                new ResourceLocation("minecraft:village/plains/houses"),
-                "dynamicvillage:plains/plains_train", 20);
-        addBuildingToPool(templatePoolRegistry, processorListRegistry,
-                new ResourceLocation("minecraft:village/plains/houses"),
-                "dynamicvillage:plains/plains_plumber", 20);
-
-        addBuildingToPool(templatePoolRegistry, processorListRegistry,
-                new ResourceLocation("minecraft:village/desert/houses"),
-                "dynamicvillage:desert/desert_mech", 20);
-        addBuildingToPool(templatePoolRegistry, processorListRegistry,
-                new ResourceLocation("minecraft:village/desert/houses"),
-                "dynamicvillage:desert/desert_miner", 20);
-        addBuildingToPool(templatePoolRegistry, processorListRegistry,
-                new ResourceLocation("minecraft:village/desert/houses"),
-                "dynamicvillage:desert/desert_train", 20);
-        addBuildingToPool(templatePoolRegistry, processorListRegistry,
-                new ResourceLocation("minecraft:village/desert/houses"),
-                "dynamicvillage:desert/desert_plumber", 20);
-
-        addBuildingToPool(templatePoolRegistry, processorListRegistry,
-                new ResourceLocation("minecraft:village/taiga/houses"),
-                "dynamicvillage:taiga/taiga_mech", 20);
-        addBuildingToPool(templatePoolRegistry, processorListRegistry,
-                new ResourceLocation("minecraft:village/taiga/houses"),
-                "dynamicvillage:taiga/taiga_miner", 20);
-        addBuildingToPool(templatePoolRegistry, processorListRegistry,
-                new ResourceLocation("minecraft:village/taiga/houses"),
-                "dynamicvillage:taiga/taiga_train", 20);
-        addBuildingToPool(templatePoolRegistry, processorListRegistry,
-                new ResourceLocation("minecraft:village/taiga/houses"),
-                "dynamicvillage:taiga/taiga_plumber", 20);
 
-        addBuildingToPool(templatePoolRegistry, processorListRegistry,
-                new ResourceLocation("minecraft:village/snowy/houses"),
-                "dynamicvillage:snowy/snowy_mech", 20);
-        addBuildingToPool(templatePoolRegistry, processorListRegistry,
-                new ResourceLocation("minecraft:village/snowy/houses"),
-                "dynamicvillage:snowy/snowy_miner", 20);
-        addBuildingToPool(templatePoolRegistry, processorListRegistry,
-                new ResourceLocation("minecraft:village/snowy/houses"),
-                "dynamicvillage:snowy/snowy_train", 20);
-        addBuildingToPool(templatePoolRegistry, processorListRegistry,
-                new ResourceLocation("minecraft:village/snowy/houses"),
-                "dynamicvillage:snowy/snowy_plumber", 20);
-
-        addBuildingToPool(templatePoolRegistry, processorListRegistry,
-                new ResourceLocation("minecraft:village/savanna/houses"),
-                "dynamicvillage:savanna/savanna_mech", 20);
-        addBuildingToPool(templatePoolRegistry, processorListRegistry,
-                new ResourceLocation("minecraft:village/savanna/houses"),
-                "dynamicvillage:savanna/savanna_miner", 20);
-        addBuildingToPool(templatePoolRegistry, processorListRegistry,
-                new ResourceLocation("minecraft:village/savanna/houses"),
-                "dynamicvillage:savanna/savanna_train", 20);
-        addBuildingToPool(templatePoolRegistry, processorListRegistry,
-                new ResourceLocation("minecraft:village/savanna/houses"),
-                "dynamicvillage:savanna/savanna_plumber", 20);
-    }}
\ No newline at end of file
+        PoolInjectionEvent jfrEvent = new PoolInjectionEvent();
+        jfrEvent.begin();
+        // Template pools are shared with worldgen threads once the server runs, so a plan from /reload waits for the next start
+        boolean weighted = ModCommonConfigs.WEIGHTED_POOL_SAMPLING.get();
+        int injected = plan.apply(templatePoolRegistry, processorListRegistry, weighted);
+        if (jfrEvent.shouldCommit()) {
+            jfrEvent.pools = plan.getEntriesByPool().size();
+            jfrEvent.buildings = injected;
+            jfrEvent.weighted = weighted;
+            jfrEvent.commit();
+        }
+        LOGGER.debug("Added {} village buildings to template pools", injected);
+    }
+}
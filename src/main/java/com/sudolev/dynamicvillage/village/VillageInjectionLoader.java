@@ -0,0 +1,88 @@
+package com.sudolev.dynamicvillage.village;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+import com.mojang.logging.LogUtils;
+import net.minecraft.ResourceLocationException;
+import net.minecraft.resources.ResourceLocation;
+import net.minecraft.server.packs.resources.Resource;
+import net.minecraft.server.packs.resources.ResourceManager;
+import net.minecraft.server.packs.resources.SimplePreparableReloadListener;
+import net.minecraft.util.GsonHelper;
+import net.minecraft.util.profiling.ProfilerFiller;
+import org.slf4j.Logger;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Loads {@code data/<namespace>/village_injections/*.json}. Each file targets one template pool:
+ * <pre>
+ * {
+ *   "pool": "minecraft:village/plains/houses",
+ *   "processors": "minecraft:empty",
+ *   "elements": [
+ *     { "location": "dynamicvillage:plains/plains_mech", "weight": 20 }
+ *   ]
+ * }
+ * </pre>
+ * A weight of 0 leaves the building out, so a datapack can override one of our files to tune or drop buildings per biome.
+ * Buildings can be reused in another biome's pool with one of our material processor lists, for example
+ * {@code "processors": "dynamicvillage:taiga_materials"}, see {@link PaletteSwapProcessor}.
+ */
+public class VillageInjectionLoader extends SimplePreparableReloadListener<VillageInjectionPlan> {
+    private static final Logger LOGGER = LogUtils.getLogger();
+    private static final String DIRECTORY = "village_injections";
+    private static final ResourceLocation DEFAULT_PROCESSORS = new ResourceLocation("minecraft", "empty");
+    private static final int MAX_WEIGHT = 150;
+
+    @Override
+    protected VillageInjectionPlan prepare(ResourceManager resourceManager, ProfilerFiller profiler) {
+        VillageInjectionPlan.Builder builder = VillageInjectionPlan.builder();
+        for (Map.Entry<ResourceLocation, Resource> file : resourceManager.listResources(DIRECTORY,
+                location -> location.getPath().endsWith(".json")).entrySet()) {
+            try (Reader reader = file.getValue().openAsReader()) {
+                read(builder, GsonHelper.parse(reader));
+            } catch (IllegalArgumentException | IOException | JsonParseException exception) {
+                LOGGER.error("Couldn't parse village injection {} from {}", file.getKey(), file.getValue().sourcePackId(), exception);
+            }
+        }
+        return builder.build();
+    }
+
+    private static void read(VillageInjectionPlan.Builder builder, JsonObject json) {
+        ResourceLocation pool = readLocation(json, "pool");
+        ResourceLocation processors = json.has("processors") ? readLocation(json, "processors") : DEFAULT_PROCESSORS;
+
+        // Validate the whole file before adding any of it
+        Map<ResourceLocation, Integer> weights = new LinkedHashMap<>();
+        for (JsonElement element : GsonHelper.getAsJsonArray(json, "elements")) {
+            JsonObject elementJson = GsonHelper.convertToJsonObject(element, "element");
+            ResourceLocation location = readLocation(elementJson, "location");
+            int weight = GsonHelper.getAsInt(elementJson, "weight");
+            if (weight < 0 || weight > MAX_WEIGHT) {
+                throw new JsonParseException("Weight of " + location + " must be between 0 and " + MAX_WEIGHT + ", was " + weight);
+            }
+            if (weight > 0) {
+                weights.put(location, weight);
+            }
+        }
+        weights.forEach((location, weight) -> builder.add(pool, location.toString(), processors, weight));
+    }
+
+    private static ResourceLocation readLocation(JsonObject json, String member) {
+        try {
+            return new ResourceLocation(GsonHelper.getAsString(json, member));
+        } catch (ResourceLocationException exception) {
+            throw new JsonParseException("Invalid " + member + ": " + exception.getMessage());
+        }
+    }
+
+    @Override
+    protected void apply(VillageInjectionPlan plan, ResourceManager resourceManager, ProfilerFiller profiler) {
+        VillageAddition.setPlan(plan);
+    }
+}
@@ -0,0 +1,138 @@
+package com.sudolev.dynamicvillage.village;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.mojang.datafixers.util.Pair;
+import com.mojang.logging.LogUtils;
+import net.minecraft.core.Holder;
+import net.minecraft.core.Registry;
+import net.minecraft.resources.ResourceKey;
+import net.minecraft.resources.ResourceLocation;
+import net.minecraft.world.level.levelgen.structure.pools.StructurePoolElement;
+import net.minecraft.world.level.levelgen.structure.pools.StructureTemplatePool;
+import net.minecraft.world.level.levelgen.structure.templatesystem.StructureProcessorList;
+import org.slf4j.Logger;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+public class VillageInjectionPlan {
+    private static final Logger LOGGER = LogUtils.getLogger();
+
+    public record Entry(ResourceLocation pool, String piece, ResourceLocation processors, int weight) {
+    }
+
+    public static final VillageInjectionPlan EMPTY = builder().build();
+
+    private final Map<ResourceLocation, List<Entry>> entriesByPool;
+
+    private VillageInjectionPlan(Map<ResourceLocation, List<Entry>> entriesByPool) {
+        this.entriesByPool = entriesByPool;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public Map<ResourceLocation, List<Entry>> getEntriesByPool() {
+        return entriesByPool;
+    }
+
+    public int size() {
+        return entriesByPool.values().stream().mapToInt(List::size).sum();
+    }
+
+    public int apply(Registry<StructureTemplatePool> templatePoolRegistry,
+                     Registry<StructureProcessorList> processorListRegistry,
+                     boolean weighted) {
+        // Builtin pools outlive the server, so each start takes them back to what they held before the first injection
+        for (StructureTemplatePool pool : templatePoolRegistry) {
+            restore(pool);
+        }
+
+        Map<ResourceLocation, Optional<Holder<StructureProcessorList>>> processorLists = new HashMap<>();
+        int injected = 0;
+        for (Map.Entry<ResourceLocation, List<Entry>> poolEntries : entriesByPool.entrySet()) {
+            StructureTemplatePool pool = templatePoolRegistry.get(poolEntries.getKey());
+            if (pool == null) {
+                LOGGER.warn("Skipping village buildings for missing template pool {}", poolEntries.getKey());
+                continue;
+            }
+            List<Entry> entries = poolEntries.getValue();
+            InjectedTemplatePool injectedPool = (InjectedTemplatePool) pool;
+            if (injectedPool.dynamicvillage$getOriginal() == null) {
+                injectedPool.dynamicvillage$setOriginal(new InjectedTemplatePool.Original(pool.rawTemplates, List.copyOf(pool.templates)));
+            }
+            List<Pair<StructurePoolElement, Integer>> listOfPieceEntries = new ArrayList<>(pool.rawTemplates.size() + entries.size());
+            listOfPieceEntries.addAll(pool.rawTemplates);
+
+            int added = 0;
+            for (Entry entry : entries) {
+                added += weighted ? 1 : entry.weight();
+            }
+            pool.templates.ensureCapacity(pool.templates.size() + added);
+
+            for (Entry entry : entries) {
+                Optional<Holder<StructureProcessorList>> processorList = processorLists.computeIfAbsent(entry.processors(),
+                        key -> processorListRegistry.getHolder(ResourceKey.create(Registry.PROCESSOR_LIST_REGISTRY, key)));
+                if (processorList.isEmpty()) {
+                    LOGGER.warn("Skipping village building {}, processor list {} does not exist", entry.piece(), entry.processors());
+                    continue;
+                }
+
+                // Legacy elements like the rest of the village, answering jigsaw placement from the piece manifest
+                ManifestPoolElement piece = new ManifestPoolElement(new ResourceLocation(entry.piece()),
+                        processorList.get(), StructureTemplatePool.Projection.RIGID);
+
+                // A weighted pool only needs the piece once, the sampler takes care of the weight
+                int copies = weighted ? 1 : entry.weight();
+                for (int i = 0; i < copies; i++) {
+                    pool.templates.add(piece);
+                }
+                listOfPieceEntries.add(new Pair<>(piece, entry.weight()));
+                injected++;
+            }
+            pool.rawTemplates = ImmutableList.copyOf(listOfPieceEntries);
+
+            if (weighted) {
+                ((WeightedTemplatePool) pool).dynamicvillage$setSampler(new WeightedTemplateSampler<>(pool.rawTemplates, pool.templates));
+            }
+        }
+        return injected;
+    }
+
+    private static void restore(StructureTemplatePool pool) {
+        InjectedTemplatePool.Original original = ((InjectedTemplatePool) pool).dynamicvillage$getOriginal();
+        if (original == null) return;
+        pool.rawTemplates = original.rawTemplates();
+        pool.templates.clear();
+        pool.templates.addAll(original.templates());
+        ((WeightedTemplatePool) pool).dynamicvillage$setSampler(null);
+    }
+
+    public static class Builder {
+        private final Map<ResourceLocation, Map<String, Entry>> entriesByPool = new LinkedHashMap<>();
+
+        public Builder add(ResourceLocation pool, String piece, ResourceLocation processors, int weight) {
+            if (weight <= 0) {
+                throw new IllegalArgumentException("Weight of " + piece + " in " + pool + " must be positive");
+            }
+            Entry previous = entriesByPool.computeIfAbsent(pool, key -> new LinkedHashMap<>())
+                    .putIfAbsent(piece, new Entry(pool, piece, processors, weight));
+            if (previous != null) {
+                LOGGER.warn("Village building {} is injected into {} more than once, keeping the first entry", piece, pool);
+            }
+            return this;
+        }
+
+        public VillageInjectionPlan build() {
+            ImmutableMap.Builder<ResourceLocation, List<Entry>> built = ImmutableMap.builder();
+            entriesByPool.forEach((pool, entries) -> built.put(pool, ImmutableList.copyOf(entries.values())));
+            return new VillageInjectionPlan(built.build());
+        }
+    }
+}
@@ -0,0 +1,330 @@
+package com.sudolev.dynamicvillage.village;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonObject;
+import com.mojang.logging.LogUtils;
+import com.sudolev.dynamicvillage.VillageLife;
+import com.sudolev.dynamicvillage.config.ModCommonConfigs;
+import it.unimi.dsi.fastutil.longs.LongArrayFIFOQueue;
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
+import it.unimi.dsi.fastutil.longs.LongSet;
+import it.unimi.dsi.fastutil.objects.ReferenceOpenHashSet;
+import net.minecraft.Util;
+import net.minecraft.commands.CommandSourceStack;
+import net.minecraft.core.Holder;
+import net.minecraft.core.Registry;
+import net.minecraft.core.SectionPos;
+import net.minecraft.network.chat.Component;
+import net.minecraft.server.level.ServerChunkCache;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.server.level.TicketType;
+import net.minecraft.tags.StructureTags;
+import net.minecraft.world.level.ChunkPos;
+import net.minecraft.world.level.chunk.ChunkAccess;
+import net.minecraft.world.level.chunk.ChunkGenerator;
+import net.minecraft.world.level.chunk.ChunkStatus;
+import net.minecraft.world.level.levelgen.RandomState;
+import net.minecraft.world.level.levelgen.structure.BoundingBox;
+import net.minecraft.world.level.levelgen.structure.Structure;
+import net.minecraft.world.level.levelgen.structure.StructureSet;
+import net.minecraft.world.level.levelgen.structure.StructureStart;
+import net.minecraft.world.level.levelgen.structure.placement.StructurePlacement;
+import net.minecraftforge.event.TickEvent;
+import net.minecraftforge.event.server.ServerStoppingEvent;
+import net.minecraftforge.eventbus.api.SubscribeEvent;
+import net.minecraftforge.fml.common.Mod;
+import net.minecraftforge.fml.loading.FMLPaths;
+import org.slf4j.Logger;
+
+import javax.annotation.Nullable;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * Pregenerates the villages around a point for {@code /dynamicvillage pregen}. Chunks where a village structure set can
+ * start are generated to structure starts first, then every chunk covered by a valid village start is generated fully.
+ * Chunks are held by a ticket while generating, at most {@code concurrency} at once, and generate on the worldgen
+ * executor like any other chunk. Jigsaw assembly and piece placement are timed while a run is active, including
+ * chunks players generate at the same time. Only one run at a time, driven from the server tick.
+ */
+@Mod.EventBusSubscriber(modid = VillageLife.MODID)
+public class VillagePregenerator {
+    private static final Logger LOGGER = LogUtils.getLogger();
+    private static final Gson GSON = new GsonBuilder().setPrettyPrinting().create();
+    private static final TicketType<ChunkPos> TICKET = TicketType.create("dynamicvillage_pregen", Comparator.comparingLong(ChunkPos::toLong));
+    private static final int PROGRESS_INTERVAL = 200;
+
+    private static final LongAdder JIGSAW_NANOS = new LongAdder();
+    private static final LongAdder JIGSAW_STARTS = new LongAdder();
+    private static final LongAdder PLACEMENT_NANOS = new LongAdder();
+    private static final LongAdder PIECES = new LongAdder();
+    private static final LongAdder OUR_PLACEMENT_NANOS = new LongAdder();
+    private static final LongAdder OUR_PIECES = new LongAdder();
+
+    private enum Phase {
+        FINDING, STARTS, GENERATING
+    }
+
+    @Nullable
+    private static VillagePregenerator running;
+    private static volatile boolean timing;
+
+    private final CommandSourceStack source;
+    private final ServerLevel level;
+    private final ChunkPos center;
+    private final int radius;
+    private final int concurrency;
+    private final Set<Structure> villages = new ReferenceOpenHashSet<>();
+    private final LongArrayFIFOQueue startChunks = new LongArrayFIFOQueue();
+    private final LongArrayFIFOQueue chunks = new LongArrayFIFOQueue();
+    private final LongSet queuedChunks = new LongOpenHashSet();
+
+    private Phase phase = Phase.FINDING;
+    private boolean cancelled;
+    private int inFlight;
+    private int candidates;
+    private int villageStarts;
+    private int generated;
+    private int failed;
+    private final long startNanos = System.nanoTime();
+    private long generateStartNanos;
+
+    private VillagePregenerator(CommandSourceStack source, ServerLevel level, ChunkPos center, int radius, int concurrency) {
+        this.source = source;
+        this.level = level;
+        this.center = center;
+        this.radius = radius;
+        this.concurrency = concurrency;
+    }
+
+    public static boolean isTiming() {
+        return timing;
+    }
+
+    public static void recordJigsaw(long nanos) {
+        JIGSAW_NANOS.add(nanos);
+        JIGSAW_STARTS.increment();
+    }
+
+    public static void recordPiece(boolean ours, long nanos) {
+        PLACEMENT_NANOS.add(nanos);
+        PIECES.increment();
+        if (ours) {
+            OUR_PLACEMENT_NANOS.add(nanos);
+            OUR_PIECES.increment();
+        }
+    }
+
+    public static boolean start(CommandSourceStack source, ServerLevel level, ChunkPos center, int radius, int concurrency) {
+        if (running != null) return false;
+
+        for (LongAdder adder : List.of(JIGSAW_NANOS, JIGSAW_STARTS, PLACEMENT_NANOS, PIECES, OUR_PLACEMENT_NANOS, OUR_PIECES)) {
+            adder.reset();
+        }
+        timing = true;
+        VillagePregenerator pregenerator = new VillagePregenerator(source, level, center, radius, concurrency);
+        running = pregenerator;
+        pregenerator.findStartChunks();
+        return true;
+    }
+
+    @Nullable
+    public static VillagePregenerator getRunning() {
+        return running;
+    }
+
+    public static boolean cancel() {
+        if (running == null) return false;
+        running.cancelled = true;
+        return true;
+    }
+
+    private void findStartChunks() {
+        Registry<Structure> structures = level.registryAccess().registryOrThrow(Registry.STRUCTURE_REGISTRY);
+        structures.getTagOrEmpty(StructureTags.VILLAGE).forEach(structure -> villages.add(structure.value()));
+        List<StructurePlacement> placements = level.registryAccess().registryOrThrow(Registry.STRUCTURE_SET_REGISTRY).stream()
+                .filter(set -> set.structures().stream().anyMatch(entry -> entry.structure().is(StructureTags.VILLAGE)))
+                .map(StructureSet::placement)
+                .toList();
+
+        ChunkGenerator generator = level.getChunkSource().getGenerator();
+        RandomState randomState = level.getChunkSource().randomState();
+        long seed = level.getSeed();
+        CompletableFuture.supplyAsync(() -> {
+            LongArrayFIFOQueue found = new LongArrayFIFOQueue();
+            for (int x = center.x - radius; x <= center.x + radius; x++) {
+                for (int z = center.z - radius; z <= center.z + radius; z++) {
+                    for (StructurePlacement placement : placements) {
+                        if (placement.isStructureChunk(generator, randomState, seed, x, z)) {
+                            found.enqueue(ChunkPos.asLong(x, z));
+                            break;
+                        }
+                    }
+                }
+            }
+            return found;
+        }, Util.backgroundExecutor()).whenCompleteAsync((found, throwable) -> {
+            if (throwable != null) {
+                LOGGER.error("Couldn't find village chunks to pregenerate", throwable);
+                cancelled = true;
+            } else {
+                candidates = found.size();
+                while (!found.isEmpty()) {
+                    startChunks.enqueue(found.dequeueLong());
+                }
+            }
+            phase = Phase.STARTS;
+        }, level.getServer());
+    }
+
+    private void tick() {
+        if (phase == Phase.FINDING) return;
+        if (cancelled) {
+            if (inFlight == 0) finish();
+            return;
+        }
+
+        LongArrayFIFOQueue queue = phase == Phase.STARTS ? startChunks : chunks;
+        ChunkStatus status = phase == Phase.STARTS ? ChunkStatus.STRUCTURE_STARTS : ChunkStatus.FULL;
+        while (inFlight < concurrency && !queue.isEmpty()) {
+            request(new ChunkPos(queue.dequeueLong()), status);
+        }
+
+        if (inFlight == 0 && queue.isEmpty()) {
+            if (phase == Phase.STARTS) {
+                phase = Phase.GENERATING;
+                generateStartNanos = System.nanoTime();
+            } else {
+                finish();
+            }
+        } else if (level.getServer().getTickCount() % PROGRESS_INTERVAL == 0) {
+            LOGGER.info("Village pregen: {}", getProgress());
+        }
+    }
+
+    private void request(ChunkPos pos, ChunkStatus status) {
+        ServerChunkCache chunkSource = level.getChunkSource();
+        // A region ticket at distance -d keeps the chunk at the ticket level the status needs, without loading it further
+        int distance = -ChunkStatus.getDistance(status);
+        chunkSource.addRegionTicket(TICKET, pos, distance, pos);
+        inFlight++;
+        // On the server thread getChunkFuture would block until the chunk is done
+        CompletableFuture.supplyAsync(() -> chunkSource.getChunkFuture(pos.x, pos.z, status, true), Util.backgroundExecutor())
+                .thenCompose(Function.identity())
+                .whenCompleteAsync((result, throwable) -> {
+                    chunkSource.removeRegionTicket(TICKET, pos, distance, pos);
+                    inFlight--;
+                    ChunkAccess chunk = result != null ? result.left().orElse(null) : null;
+                    if (chunk == null) {
+                        failed++;
+                    } else if (status == ChunkStatus.STRUCTURE_STARTS) {
+                        queueVillageChunks(chunk);
+                    } else {
+                        generated++;
+                    }
+                }, level.getServer());
+    }
+
+    private void queueVillageChunks(ChunkAccess chunk) {
+        for (Map.Entry<Structure, StructureStart> start : chunk.getAllStarts().entrySet()) {
+            if (!start.getValue().isValid() || !villages.contains(start.getKey())) continue;
+
+            villageStarts++;
+            BoundingBox box = start.getValue().getBoundingBox();
+            for (int x = SectionPos.blockToSectionCoord(box.minX()); x <= SectionPos.blockToSectionCoord(box.maxX()); x++) {
+                for (int z = SectionPos.blockToSectionCoord(box.minZ()); z <= SectionPos.blockToSectionCoord(box.maxZ()); z++) {
+                    long key = ChunkPos.asLong(x, z);
+                    if (queuedChunks.add(key)) chunks.enqueue(key);
+                }
+            }
+        }
+    }
+
+    public String getProgress() {
+        return switch (phase) {
+            case FINDING -> "finding village chunks";
+            case STARTS -> String.format(Locale.ROOT, "%d of %d possible village chunks checked, %d villages",
+                    candidates - startChunks.size() - inFlight, candidates, villageStarts);
+            case GENERATING -> String.format(Locale.ROOT, "%d of %d chunks of %d villages generated",
+                    generated, queuedChunks.size(), villageStarts);
+        };
+    }
+
+    private void finish() {
+        running = null;
+        timing = false;
+        long now = System.nanoTime();
+        double seconds = (now - startNanos) / 1.0E9D;
+        double generateSeconds = generateStartNanos == 0 ? 0.0D : (now - generateStartNanos) / 1.0E9D;
+
+        JsonObject report = new JsonObject();
+        report.addProperty("dimension", level.dimension().location().toString());
+        report.addProperty("centerChunkX", center.x);
+        report.addProperty("centerChunkZ", center.z);
+        report.addProperty("radius", radius);
+        report.addProperty("concurrency", concurrency);
+        report.addProperty("weightedPoolSampling", ModCommonConfigs.WEIGHTED_POOL_SAMPLING.get());
+        report.addProperty("warmUpTemplates", ModCommonConfigs.WARM_UP_TEMPLATES.get());
+        report.addProperty("cancelled", cancelled);
+        report.addProperty("candidateChunks", candidates);
+        report.addProperty("villages", villageStarts);
+        report.addProperty("chunks", generated);
+        report.addProperty("failedChunks", failed);
+        report.addProperty("seconds", seconds);
+        report.addProperty("generateSeconds", generateSeconds);
+        report.addProperty("chunksPerSecond", generateSeconds > 0.0D ? generated / generateSeconds : 0.0D);
+        report.addProperty("jigsawStarts", JIGSAW_STARTS.sum());
+        report.addProperty("jigsawMillis", JIGSAW_NANOS.sum() / 1.0E6D);
+        report.addProperty("pieces", PIECES.sum());
+        report.addProperty("placementMillis", PLACEMENT_NANOS.sum() / 1.0E6D);
+        report.addProperty("dynamicvillagePieces", OUR_PIECES.sum());
+        report.addProperty("dynamicvillagePlacementMillis", OUR_PLACEMENT_NANOS.sum() / 1.0E6D);
+        double share = PLACEMENT_NANOS.sum() > 0 ? (double) OUR_PLACEMENT_NANOS.sum() / PLACEMENT_NANOS.sum() : 0.0D;
+        report.addProperty("dynamicvillagePlacementShare", share);
+
+        String summary = String.format(Locale.ROOT, "Village pregen %s: %d villages, %d chunks in %.1f s (%.1f chunks/s), jigsaw %.0f ms over %d starts,"
+                        + " piece placement %.0f ms, %.1f%% of it on %d dynamicvillage pieces",
+                cancelled ? "cancelled" : "done", villageStarts, generated, seconds, report.get("chunksPerSecond").getAsDouble(),
+                JIGSAW_NANOS.sum() / 1.0E6D, JIGSAW_STARTS.sum(), PLACEMENT_NANOS.sum() / 1.0E6D, share * 100.0D, OUR_PIECES.sum());
+        LOGGER.info(summary);
+        source.sendSuccess(Component.literal(summary), true);
+
+        Path directory = FMLPaths.GAMEDIR.get().resolve(VillageLife.MODID).resolve("benchmarks");
+        Path file = directory.resolve("pregen-" + LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss")) + ".json");
+        try {
+            Files.createDirectories(directory);
+            try (Writer writer = Files.newBufferedWriter(file)) {
+                GSON.toJson(report, writer);
+            }
+            source.sendSuccess(Component.literal("Wrote village pregen report to " + FMLPaths.GAMEDIR.get().relativize(file)), false);
+        } catch (IOException exception) {
+            LOGGER.error("Couldn't write village pregen report", exception);
+        }
+    }
+
+    @SubscribeEvent
+    public static void onServerTick(final TickEvent.ServerTickEvent event) {
+        if (event.phase == TickEvent.Phase.END && running != null) {
+            running.tick();
+        }
+    }
+
+    @SubscribeEvent
+    public static void onServerStopping(final ServerStoppingEvent event) {
+        running = null;
+        timing = false;
+    }
+}
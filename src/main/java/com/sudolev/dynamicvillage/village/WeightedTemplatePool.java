@@ -0,0 +1,13 @@
+package com.sudolev.dynamicvillage.village;
+
+import net.minecraft.world.level.levelgen.structure.pools.StructurePoolElement;
+
+import javax.annotation.Nullable;
+
+// Implemented on StructureTemplatePool by StructureTemplatePoolMixin
+public interface WeightedTemplatePool {
+    @Nullable
+    WeightedTemplateSampler<StructurePoolElement> dynamicvillage$getSampler();
+
+    void dynamicvillage$setSampler(@Nullable WeightedTemplateSampler<StructurePoolElement> sampler);
+}
@@ -0,0 +1,137 @@
+package com.sudolev.dynamicvillage.village;
+
+import com.mojang.datafixers.util.Pair;
+import it.unimi.dsi.fastutil.ints.IntArrays;
+import it.unimi.dsi.fastutil.objects.ObjectArrayList;
+import it.unimi.dsi.fastutil.objects.Reference2IntLinkedOpenHashMap;
+import net.minecraft.util.RandomSource;
+
+import java.util.List;
+
+/**
+ * Samples a template pool straight from its raw (element, weight) entries. Elements are compared by identity.
+ * <p>
+ * Single draws use an alias table. Shuffles draw a weighted order without replacement, which gives the same
+ * order of first appearances as shuffling the pool's duplicated template list, minus the repeats that jigsaw
+ * would only retry and reject again.
+ * <p>
+ * Elements that are only in the duplicated template list, as some mods add them, count once per copy there. The raw
+ * list and the entries of both lists are kept, so the pool can tell when someone changed or replaced either after the
+ * sampler was built.
+ */
+public class WeightedTemplateSampler<E> {
+    private final ObjectArrayList<E> elements;
+    private final int[] weights;
+    private final double[] probabilities;
+    private final int[] aliases;
+    private final List<Pair<E, Integer>> rawTemplates;
+    private final Object[] rawEntries;
+    private final Object[] templateEntries;
+
+    public WeightedTemplateSampler(List<Pair<E, Integer>> rawTemplates, List<E> templates) {
+        Reference2IntLinkedOpenHashMap<E> merged = new Reference2IntLinkedOpenHashMap<>();
+        for (Pair<E, Integer> entry : rawTemplates) {
+            if (entry.getSecond() > 0) {
+                merged.addTo(entry.getFirst(), entry.getSecond());
+            }
+        }
+        Reference2IntLinkedOpenHashMap<E> templatesOnly = new Reference2IntLinkedOpenHashMap<>();
+        for (E template : templates) {
+            if (!merged.containsKey(template)) {
+                templatesOnly.addTo(template, 1);
+            }
+        }
+        merged.putAll(templatesOnly);
+        this.rawTemplates = rawTemplates;
+        rawEntries = rawTemplates.toArray();
+        templateEntries = templates.toArray();
+
+        int size = merged.size();
+        if (size == 0) {
+            throw new IllegalArgumentException("Cannot sample a pool without weighted templates");
+        }
+        elements = new ObjectArrayList<>(merged.keySet());
+        weights = merged.values().toIntArray();
+        probabilities = new double[size];
+        aliases = new int[size];
+
+        long totalWeight = 0;
+        for (int weight : weights) {
+            totalWeight += weight;
+        }
+
+        // Vose's alias method
+        double[] scaled = new double[size];
+        int[] small = new int[size];
+        int[] large = new int[size];
+        int smallCount = 0;
+        int largeCount = 0;
+        for (int i = 0; i < size; i++) {
+            scaled[i] = (double) weights[i] * size / totalWeight;
+            if (scaled[i] < 1.0D) {
+                small[smallCount++] = i;
+            } else {
+                large[largeCount++] = i;
+            }
+        }
+        while (smallCount > 0 && largeCount > 0) {
+            int less = small[--smallCount];
+            int more = large[--largeCount];
+            probabilities[less] = scaled[less];
+            aliases[less] = more;
+            scaled[more] = scaled[more] + scaled[less] - 1.0D;
+            if (scaled[more] < 1.0D) {
+                small[smallCount++] = more;
+            } else {
+                large[largeCount++] = more;
+            }
+        }
+        while (largeCount > 0) {
+            probabilities[large[--largeCount]] = 1.0D;
+        }
+        while (smallCount > 0) {
+            probabilities[small[--smallCount]] = 1.0D;
+        }
+    }
+
+    public E sample(RandomSource random) {
+        int column = random.nextInt(elements.size());
+        return elements.get(random.nextDouble() < probabilities[column] ? column : aliases[column]);
+    }
+
+    // Compared by identity, a list swapped for an equal one or an element replaced in place both count as changed
+    public boolean matches(List<?> rawTemplates, List<?> templates) {
+        return rawTemplates == this.rawTemplates && sameEntries(rawEntries, rawTemplates) && sameEntries(templateEntries, templates);
+    }
+
+    private static boolean sameEntries(Object[] entries, List<?> list) {
+        if (entries.length != list.size()) return false;
+        for (int i = 0; i < entries.length; i++) {
+            if (entries[i] != list.get(i)) return false;
+        }
+        return true;
+    }
+
+    public List<E> shuffled(RandomSource random) {
+        int size = elements.size();
+        double[] keys = new double[size];
+        int[] order = new int[size];
+
+        // Efraimidis-Spirakis: an exponential key per entry, smallest key first
+        for (int i = 0; i < size; i++) {
+            keys[i] = -Math.log(1.0D - random.nextDouble()) / weights[i];
+            order[i] = i;
+        }
+        IntArrays.quickSort(order, (a, b) -> Double.compare(keys[a], keys[b]));
+
+        ObjectArrayList<E> result = new ObjectArrayList<>(size);
+        for (int index : order) {
+            result.add(elements.get(index));
+        }
+        return result;
+    }
+
+    public int size() {
+        return elements.size();
+    }
+}
@@ -0,0 +1,115 @@
+package com.sudolev.dynamicvillage.villager;
+
+import com.mojang.logging.LogUtils;
+import com.sudolev.dynamicvillage.VillageLife;
+import com.sudolev.dynamicvillage.config.ModCommonConfigs;
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.Holder;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.world.entity.ai.village.poi.PoiManager;
+import net.minecraft.world.entity.ai.village.poi.PoiType;
+import net.minecraft.world.entity.ai.village.poi.PoiTypes;
+import net.minecraft.world.entity.player.Player;
+import net.minecraft.world.level.block.state.BlockState;
+import net.minecraftforge.common.util.FakePlayer;
+import net.minecraftforge.event.level.BlockEvent;
+import net.minecraftforge.event.server.ServerAboutToStartEvent;
+import net.minecraftforge.eventbus.api.EventPriority;
+import net.minecraftforge.eventbus.api.SubscribeEvent;
+import net.minecraftforge.fml.common.Mod;
+import net.minecraftforge.registries.ForgeRegistries;
+import net.minecraftforge.registries.GameData;
+import org.slf4j.Logger;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+/**
+ * Opt-in mode that takes mechanical drills and train stations out of the vanilla block state to POI lookup.
+ * Contraptions assembling and disassembling thousands of drills then never touch the PoiManager. Job sites are
+ * instead registered explicitly for blocks placed by structure generation or by a player near a village.
+ */
+@Mod.EventBusSubscriber(modid = VillageLife.MODID)
+public class JobSiteFilter {
+    private static final Logger LOGGER = LogUtils.getLogger();
+    private static final List<Supplier<PoiType>> FILTERED_POIS = List.of(
+            ModVillagers.CREATE_MINER_POI, ModVillagers.CREATE_MECHANIC_POI);
+
+    private static final Map<BlockState, PoiType> filteredStates = new HashMap<>();
+    private static volatile boolean active;
+
+    @SubscribeEvent
+    public static void onServerAboutToStart(final ServerAboutToStartEvent event) {
+        setActive(ModCommonConfigs.FILTERED_JOB_SITES.get());
+    }
+
+    // Runs before worldgen starts, the state map is read from worldgen threads afterwards
+    private static synchronized void setActive(boolean filtered) {
+        if (active == filtered) return;
+
+        Map<BlockState, PoiType> poiTypeByState = GameData.getBlockStatePointOfInterestTypeMap();
+        if (filtered) {
+            for (Supplier<PoiType> poiType : FILTERED_POIS) {
+                for (BlockState state : poiType.get().matchingStates()) {
+                    if (poiTypeByState.remove(state, poiType.get())) {
+                        filteredStates.put(state, poiType.get());
+                    }
+                }
+            }
+        } else {
+            poiTypeByState.putAll(filteredStates);
+            filteredStates.clear();
+        }
+        active = filtered;
+        LOGGER.debug("Filtered job sites {}", filtered ? "enabled" : "disabled");
+    }
+
+    public static boolean isActive() {
+        return active;
+    }
+
+    private static Optional<Holder<PoiType>> getFilteredType(BlockState state) {
+        PoiType poiType = filteredStates.get(state);
+        return poiType == null ? Optional.empty() : ForgeRegistries.POI_TYPES.getHolder(poiType);
+    }
+
+    public static void onWorldgenBlockPlaced(ServerLevel level, BlockPos pos, BlockState state) {
+        if (!active) return;
+        getFilteredType(state).ifPresent(poiType -> {
+            BlockPos immutablePos = pos.immutable();
+            level.getServer().execute(() -> level.getPoiManager().add(immutablePos, poiType));
+        });
+    }
+
+    public static void onBlockStateChange(ServerLevel level, BlockPos pos, BlockState oldState, BlockState newState) {
+        if (!active) return;
+        PoiType oldType = filteredStates.get(oldState);
+        if (oldType == null || oldType == filteredStates.get(newState)) return;
+
+        BlockPos immutablePos = pos.immutable();
+        level.getServer().execute(() -> {
+            PoiManager poiManager = level.getPoiManager();
+            if (poiManager.getType(immutablePos).filter(type -> type.value() == oldType).isPresent()) {
+                poiManager.remove(immutablePos);
+            }
+        });
+    }
+
+    @SubscribeEvent(priority = EventPriority.LOWEST)
+    public static void onBlockPlaced(final BlockEvent.EntityPlaceEvent event) {
+        if (!active || !(event.getLevel() instanceof ServerLevel level)) return;
+        if (!(event.getEntity() instanceof Player) || event.getEntity() instanceof FakePlayer) return;
+
+        getFilteredType(event.getPlacedBlock()).ifPresent(poiType -> {
+            PoiManager poiManager = level.getPoiManager();
+            boolean nearVillage = poiManager.getInRange(type -> type.is(PoiTypes.MEETING), event.getPos(),
+                    ModCommonConfigs.FILTERED_JOB_SITE_RANGE.get(), PoiManager.Occupancy.ANY).findAny().isPresent();
+            if (nearVillage) {
+                poiManager.add(event.getPos().immutable(), poiType);
+            }
+        });
+    }
+}
@@ -0,0 +1,160 @@
+package com.sudolev.dynamicvillage.villager;
+
+import com.mojang.datafixers.util.Pair;
+import com.sudolev.dynamicvillage.VillageLife;
+import com.sudolev.dynamicvillage.config.ModCommonConfigs;
+import com.sudolev.dynamicvillage.jfr.JobSiteLookupEvent;
+import com.sudolev.dynamicvillage.mixin.SectionStorageAccessor;
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.Holder;
+import net.minecraft.core.SectionPos;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.world.entity.ai.village.poi.PoiManager;
+import net.minecraft.world.entity.ai.village.poi.PoiRecord;
+import net.minecraft.world.entity.ai.village.poi.PoiSection;
+import net.minecraft.world.entity.ai.village.poi.PoiType;
+import net.minecraft.world.entity.npc.VillagerProfession;
+import net.minecraft.world.level.ChunkPos;
+import net.minecraft.world.level.LevelHeightAccessor;
+import net.minecraftforge.event.level.ChunkEvent;
+import net.minecraftforge.eventbus.api.SubscribeEvent;
+import net.minecraftforge.fml.common.Mod;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+
+/**
+ * Our job sites per POI section of one level, so villagers looking for work don't run a full POI scan over the
+ * 48 block acquisition range for them. Sections are read lazily and dropped again when the PoiManager adds, removes
+ * or reloads POIs in them, or when their chunk unloads. Tickets are read from the records themselves, so claiming and releasing a site needs no
+ * bookkeeping here. Only used on the server thread, like the PoiManager itself.
+ */
+@Mod.EventBusSubscriber(modid = VillageLife.MODID)
+public class JobSiteIndex {
+    private static final PoiRecord[] NO_SITES = new PoiRecord[0];
+    // AcquirePoi only paths to the closest five candidates
+    private static final int CANDIDATES = 5;
+
+    private final SectionStorageAccessor<PoiSection> storage;
+    private final Long2ObjectMap<PoiRecord[]> sitesBySection = new Long2ObjectOpenHashMap<>();
+
+    @SuppressWarnings("unchecked")
+    public JobSiteIndex(PoiManager poiManager) {
+        this.storage = (SectionStorageAccessor<PoiSection>) poiManager;
+    }
+
+    public static Stream<Pair<Holder<PoiType>, BlockPos>> findAllClosestFirstWithType(PoiManager poiManager, Predicate<Holder<PoiType>> typePredicate,
+                                                                                 Predicate<BlockPos> posPredicate, BlockPos pos, int distance,
+                                                                                 PoiManager.Occupancy occupancy) {
+        boolean ownTypes = typePredicate instanceof JobSitePredicate;
+        if (!ownTypes && typePredicate != VillagerProfession.ALL_ACQUIRABLE_JOBS) {
+            return poiManager.findAllClosestFirstWithType(typePredicate, posPredicate, pos, distance, occupancy);
+        }
+        // Checked first, so sites of a full village don't count as attempts for the retry backoff
+        Predicate<BlockPos> belowCap = ((VillageProfessionCapsHolder) poiManager).dynamicvillage$getProfessionCaps()::allows;
+        posPredicate = belowCap.and(posPredicate);
+        if (!ModCommonConfigs.JOB_SITE_INDEX.get()) {
+            return poiManager.findAllClosestFirstWithType(typePredicate, posPredicate, pos, distance, occupancy);
+        }
+
+        JobSiteIndex index = ((JobSiteIndexHolder) poiManager).dynamicvillage$getJobSiteIndex();
+        Stream<Pair<Holder<PoiType>, BlockPos>> sites = index.findClosest(typePredicate, posPredicate, pos, distance, occupancy, CANDIDATES)
+                .stream().map(record -> Pair.of(record.getPoiType(), record.getPos()));
+        if (ownTypes) return sites;
+
+        // Vanilla job sites still come from the PoiManager, ours are left out of that scan
+        Stream<Pair<Holder<PoiType>, BlockPos>> otherSites = poiManager.findAllClosestFirstWithType(
+                typePredicate.and(ModVillagers.JOB_SITES.negate()), posPredicate, pos, distance, occupancy).limit(CANDIDATES);
+        return Stream.concat(otherSites, sites).sorted(Comparator.comparingDouble(site -> site.getSecond().distSqr(pos)));
+    }
+
+    public void invalidate(long sectionKey) {
+        sitesBySection.remove(sectionKey);
+    }
+
+    public void invalidateColumn(ChunkPos chunkPos) {
+        LevelHeightAccessor level = storage.dynamicvillage$getLevelHeightAccessor();
+        for (int y = level.getMinSection(); y < level.getMaxSection(); y++) {
+            sitesBySection.remove(SectionPos.asLong(chunkPos.x, y, chunkPos.z));
+        }
+    }
+
+    // The PoiManager keeps its sections after the chunk unloads, this only forgets what was read from them
+    @SubscribeEvent
+    public static void onChunkUnload(final ChunkEvent.Unload event) {
+        if (event.getLevel() instanceof ServerLevel level) {
+            ((JobSiteIndexHolder) level.getPoiManager()).dynamicvillage$getJobSiteIndex().invalidateColumn(event.getChunk().getPos());
+        }
+    }
+
+    private PoiRecord[] getSites(long sectionKey) {
+        PoiRecord[] sites = sitesBySection.get(sectionKey);
+        if (sites == null) {
+            sites = storage.dynamicvillage$getOrLoad(sectionKey)
+                    .map(section -> section.getRecords(ModVillagers.JOB_SITES, PoiManager.Occupancy.ANY).toArray(PoiRecord[]::new))
+                    .filter(records -> records.length > 0)
+                    .orElse(NO_SITES);
+            sitesBySection.put(sectionKey, sites);
+        }
+        return sites;
+    }
+
+    /**
+     * Walks the chunk columns around {@code pos} ring by ring and stops once no further ring can hold anything closer
+     * than the {@code limit} sites found so far. The position predicate is only tested on sites that pass every other check.
+     */
+    public List<PoiRecord> findClosest(Predicate<Holder<PoiType>> typePredicate, Predicate<BlockPos> posPredicate, BlockPos pos,
+                                       int distance, PoiManager.Occupancy occupancy, int limit) {
+        JobSiteLookupEvent jfrEvent = new JobSiteLookupEvent();
+        jfrEvent.begin();
+        LevelHeightAccessor level = storage.dynamicvillage$getLevelHeightAccessor();
+        Comparator<PoiRecord> byDistance = Comparator.comparingDouble(record -> record.getPos().distSqr(pos));
+        double maxDistanceSqr = (double) distance * distance;
+        int centerX = SectionPos.blockToSectionCoord(pos.getX());
+        int centerZ = SectionPos.blockToSectionCoord(pos.getZ());
+        int minY = Math.max(level.getMinSection(), SectionPos.blockToSectionCoord(pos.getY() - distance));
+        int maxY = Math.min(level.getMaxSection() - 1, SectionPos.blockToSectionCoord(pos.getY() + distance));
+        int radius = Math.floorDiv(distance, SectionPos.SECTION_SIZE) + 1;
+
+        List<PoiRecord> found = new ArrayList<>();
+        for (int ring = 0; ring <= radius; ring++) {
+            if (found.size() >= limit) {
+                found.sort(byDistance);
+                // Every block in this ring is at least this far away horizontally
+                double reach = (ring - 1) * SectionPos.SECTION_SIZE;
+                if (found.get(limit - 1).getPos().distSqr(pos) <= reach * reach) break;
+            }
+
+            for (int x = centerX - ring; x <= centerX + ring; x++) {
+                // Inner columns of the ring only have their two edge cells in it
+                int step = x == centerX - ring || x == centerX + ring ? 1 : 2 * ring;
+                for (int z = centerZ - ring; z <= centerZ + ring; z += step) {
+                    for (int y = minY; y <= maxY; y++) {
+                        PoiRecord[] sites = getSites(SectionPos.asLong(x, y, z));
+                        jfrEvent.sections++;
+                        jfrEvent.candidates += sites.length;
+                        for (PoiRecord site : sites) {
+                            if (occupancy.getTest().test(site) && typePredicate.test(site.getPoiType())
+                                    && site.getPos().distSqr(pos) <= maxDistanceSqr && posPredicate.test(site.getPos())) {
+                                found.add(site);
+                            }
+                        }
+                    }
+                }
+            }
+        }
+
+        found.sort(byDistance);
+        List<PoiRecord> closest = found.size() > limit ? found.subList(0, limit) : found;
+        if (jfrEvent.shouldCommit()) {
+            jfrEvent.found = closest.size();
+            jfrEvent.commit();
+        }
+        return closest;
+    }
+}
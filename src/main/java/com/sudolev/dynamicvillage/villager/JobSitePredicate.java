@@ -0,0 +1,35 @@
+package com.sudolev.dynamicvillage.villager;
+
+import net.minecraft.core.Holder;
+import net.minecraft.resources.ResourceKey;
+import net.minecraft.world.entity.ai.village.poi.PoiType;
+import net.minecraftforge.registries.RegistryObject;
+
+import java.util.Arrays;
+import java.util.function.Predicate;
+
+/**
+ * Matches our POI types by registry key. Keys are interned, so a test is an identity check per key instead of
+ * resolving the registry objects for every candidate.
+ */
+public final class JobSitePredicate implements Predicate<Holder<PoiType>> {
+    private final ResourceKey<PoiType>[] keys;
+
+    private JobSitePredicate(ResourceKey<PoiType>[] keys) {
+        this.keys = keys;
+    }
+
+    @SafeVarargs
+    @SuppressWarnings("unchecked")
+    public static JobSitePredicate of(RegistryObject<PoiType>... poiTypes) {
+        return new JobSitePredicate(Arrays.stream(poiTypes).map(RegistryObject::getKey).toArray(ResourceKey[]::new));
+    }
+
+    @Override
+    public boolean test(Holder<PoiType> poiType) {
+        for (ResourceKey<PoiType> key : keys) {
+            if (poiType.is(key)) return true;
+        }
+        return false;
+    }
+}
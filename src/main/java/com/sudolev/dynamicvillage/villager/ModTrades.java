@@ -0,0 +1,72 @@
+package com.sudolev.dynamicvillage.villager;
+
+import com.mojang.logging.LogUtils;
+import com.sudolev.dynamicvillage.VillageLife;
+import it.unimi.dsi.fastutil.ints.Int2ObjectMap;
+import it.unimi.dsi.fastutil.ints.Int2ObjectOpenHashMap;
+import net.minecraft.world.entity.npc.VillagerData;
+import net.minecraft.world.entity.npc.VillagerProfession;
+import net.minecraft.world.entity.npc.VillagerTrades;
+import net.minecraftforge.event.AddReloadListenerEvent;
+import net.minecraftforge.event.village.VillagerTradesEvent;
+import net.minecraftforge.eventbus.api.SubscribeEvent;
+import net.minecraftforge.fml.common.Mod;
+import net.minecraftforge.server.ServerLifecycleHooks;
+import org.slf4j.Logger;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+@Mod.EventBusSubscriber(modid = VillageLife.MODID)
+public class ModTrades {
+    private static final Logger LOGGER = LogUtils.getLogger();
+    private static volatile Map<VillagerProfession, ProfessionTrades> tables = Map.of();
+
+    static void setTables(Map<VillagerProfession, ProfessionTrades> newTables) {
+        Map<VillagerProfession, ProfessionTrades> oldTables = tables;
+        tables = newTables;
+        LOGGER.debug("Loaded {} villager trades for {} professions",
+                newTables.values().stream().mapToInt(ProfessionTrades::size).sum(), newTables.size());
+
+        // Trades are built when the server starts, after a /reload the running server's trades are swapped in place
+        if (ServerLifecycleHooks.getCurrentServer() != null) {
+            Set<VillagerProfession> professions = Collections.newSetFromMap(new IdentityHashMap<>());
+            professions.addAll(oldTables.keySet());
+            professions.addAll(newTables.keySet());
+            professions.forEach(profession -> replaceTrades(profession, newTables.get(profession)));
+        }
+    }
+
+    private static void replaceTrades(VillagerProfession profession, ProfessionTrades table) {
+        Int2ObjectMap<VillagerTrades.ItemListing[]> trades = VillagerTrades.TRADES.computeIfAbsent(profession, key -> new Int2ObjectOpenHashMap<>());
+        for (int level = VillagerData.MIN_VILLAGER_LEVEL; level <= VillagerData.MAX_VILLAGER_LEVEL; level++) {
+            List<VillagerTrades.ItemListing> listings = new ArrayList<>();
+            for (VillagerTrades.ItemListing listing : trades.getOrDefault(level, new VillagerTrades.ItemListing[0])) {
+                if (!(listing instanceof TradeTemplate)) {
+                    listings.add(listing);
+                }
+            }
+            if (table != null) {
+                Collections.addAll(listings, table.getTrades(level));
+            }
+            trades.put(level, listings.toArray(new VillagerTrades.ItemListing[0]));
+        }
+    }
+
+    @SubscribeEvent
+    public static void addReloadListener(final AddReloadListenerEvent event) {
+        event.addListener(new TradeTableLoader());
+    }
+
+    @SubscribeEvent
+    public static void addCustomTrades(final VillagerTradesEvent event) {
+        ProfessionTrades table = tables.get(event.getType());
+        if (table != null) {
+            table.addTo(event.getTrades());
+        }
+    }
+}
@@ -34,26 +34,34 @@ public class ModVillagers {
             () -> new PoiType(ImmutableSet.copyOf(AllBlocks.TRACK_STATION.get().getStateDefinition().getPossibleStates()),
                     1, 2));
 
+    public static final JobSitePredicate JOB_SITES = JobSitePredicate.of(CREATE_ENGINEER_POI,
+            CREATE_HYDRAULIC_ENGINEER_POI, CREATE_MINER_POI, CREATE_MECHANIC_POI);
+
     public static final RegistryObject<VillagerProfession> MECHANICAL_ENGINEER = VILLAGER_PROFESSIONS.register("mechanical_engineer",
-            () -> new VillagerProfession("mechanical_engineer", x -> x.get() == CREATE_ENGINEER_POI.get(),
-                    x -> x.get() == CREATE_ENGINEER_POI.get(), ImmutableSet.of(), ImmutableSet.of(),
+            () -> new VillagerProfession("mechanical_engineer", JobSitePredicate.of(CREATE_ENGINEER_POI),
+                    JobSitePredicate.of(CREATE_ENGINEER_POI), ImmutableSet.of(), ImmutableSet.of(),
                     SoundEvents.VILLAGER_WORK_ARMORER));
     public static final RegistryObject<VillagerProfession> HYDRAULIC_ENGINEER = VILLAGER_PROFESSIONS.register("hydraulic_engineer",
-            () -> new VillagerProfession("hydraulic_engineer", x -> x.get() == CREATE_HYDRAULIC_ENGINEER_POI.get(),
-                    x -> x.get() == CREATE_HYDRAULIC_ENGINEER_POI.get(), ImmutableSet.of(), ImmutableSet.of(),
+            () -> new VillagerProfession("hydraulic_engineer", JobSitePredicate.of(CREATE_HYDRAULIC_ENGINEER_POI),
+                    JobSitePredicate.of(CREATE_HYDRAULIC_ENGINEER_POI), ImmutableSet.of(), ImmutableSet.of(),
                     SoundEvents.VILLAGER_WORK_LEATHERWORKER));
     public static final RegistryObject<VillagerProfession> TRAIN_MECHANIC = VILLAGER_PROFESSIONS.register("train_mechanic",
-            () -> new VillagerProfession("train_mechanic", x -> x.get() == CREATE_MECHANIC_POI.get(),
-                    x -> x.get() == CREATE_MECHANIC_POI.get(), ImmutableSet.of(), ImmutableSet.of(),
+            () -> new VillagerProfession("train_mechanic", JobSitePredicate.of(CREATE_MECHANIC_POI),
+                    JobSitePredicate.of(CREATE_MECHANIC_POI), ImmutableSet.of(), ImmutableSet.of(),
                     SoundEvents.VILLAGER_WORK_TOOLSMITH));
     public static final RegistryObject<VillagerProfession> MINER = VILLAGER_PROFESSIONS.register("miner",
-            () -> new VillagerProfession("miner", x -> x.get() == CREATE_MINER_POI.get(),
-                    x -> x.get() == CREATE_MINER_POI.get(), ImmutableSet.of(), ImmutableSet.of(),
+            () -> new VillagerProfession("miner", JobSitePredicate.of(CREATE_MINER_POI),
+                    JobSitePredicate.of(CREATE_MINER_POI), ImmutableSet.of(), ImmutableSet.of(),
                     SoundEvents.VILLAGER_WORK_MASON));
 
 
 
 
+    public static boolean isCreateProfession(VillagerProfession profession) {
+        return profession == MECHANICAL_ENGINEER.get() || profession == HYDRAULIC_ENGINEER.get()
+                || profession == TRAIN_MECHANIC.get() || profession == MINER.get();
+    }
+
     public static void registerPOIs() {
         try {
             ObfuscationReflectionHelper.findMethod(PoiType.class,
@@ -0,0 +1,64 @@
+package com.sudolev.dynamicvillage.villager;
+
+import com.google.common.collect.ImmutableList;
+import it.unimi.dsi.fastutil.ints.Int2ObjectMap;
+import it.unimi.dsi.fastutil.ints.Int2ObjectOpenHashMap;
+import net.minecraft.world.entity.npc.VillagerTrades;
+
+import java.util.Collections;
+import java.util.List;
+
+public class ProfessionTrades {
+    private static final VillagerTrades.ItemListing[] NO_TRADES = new VillagerTrades.ItemListing[0];
+
+    private final VillagerTrades.ItemListing[][] tradesByLevel;
+
+    private ProfessionTrades(VillagerTrades.ItemListing[][] tradesByLevel) {
+        this.tradesByLevel = tradesByLevel;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public VillagerTrades.ItemListing[] getTrades(int level) {
+        return level > 0 && level < tradesByLevel.length ? tradesByLevel[level] : NO_TRADES;
+    }
+
+    public int size() {
+        int size = 0;
+        for (VillagerTrades.ItemListing[] listings : tradesByLevel) {
+            size += listings.length;
+        }
+        return size;
+    }
+
+    public void addTo(Int2ObjectMap<List<VillagerTrades.ItemListing>> trades) {
+        for (int level = 1; level < tradesByLevel.length; level++) {
+            VillagerTrades.ItemListing[] listings = tradesByLevel[level];
+            if (listings.length > 0) {
+                Collections.addAll(trades.get(level), listings);
+            }
+        }
+    }
+
+    public static class Builder {
+        private final Int2ObjectMap<ImmutableList.Builder<VillagerTrades.ItemListing>> tradesByLevel = new Int2ObjectOpenHashMap<>();
+        private int maxLevel;
+
+        public Builder add(int level, VillagerTrades.ItemListing listing) {
+            tradesByLevel.computeIfAbsent(level, key -> ImmutableList.builder()).add(listing);
+            maxLevel = Math.max(maxLevel, level);
+            return this;
+        }
+
+        public ProfessionTrades build() {
+            VillagerTrades.ItemListing[][] built = new VillagerTrades.ItemListing[maxLevel + 1][];
+            for (int level = 0; level <= maxLevel; level++) {
+                ImmutableList.Builder<VillagerTrades.ItemListing> listings = tradesByLevel.get(level);
+                built[level] = listings == null ? NO_TRADES : listings.build().toArray(NO_TRADES);
+            }
+            return new ProfessionTrades(built);
+        }
+    }
+}
@@ -0,0 +1,123 @@
+package com.sudolev.dynamicvillage.villager;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+import com.mojang.datafixers.util.Pair;
+import com.mojang.logging.LogUtils;
+import net.minecraft.ResourceLocationException;
+import net.minecraft.resources.ResourceLocation;
+import net.minecraft.server.packs.resources.Resource;
+import net.minecraft.server.packs.resources.ResourceManager;
+import net.minecraft.server.packs.resources.SimplePreparableReloadListener;
+import net.minecraft.util.GsonHelper;
+import net.minecraft.util.profiling.ProfilerFiller;
+import net.minecraft.world.entity.npc.VillagerData;
+import net.minecraft.world.entity.npc.VillagerProfession;
+import net.minecraft.world.item.ItemStack;
+import net.minecraft.world.item.crafting.ShapedRecipe;
+import net.minecraftforge.registries.ForgeRegistries;
+import org.slf4j.Logger;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Loads {@code data/<namespace>/villager_trades/*.json} and compiles them into one trade table per profession:
+ * <pre>
+ * {
+ *   "profession": "dynamicvillage:miner",
+ *   "trades": {
+ *     "1": [
+ *       { "buy": { "item": "minecraft:emerald" }, "sell": { "item": "minecraft:torch", "count": 12 },
+ *         "max_uses": 8, "xp": 8, "price_multiplier": 0.1 }
+ *     ]
+ *   }
+ * }
+ * </pre>
+ * {@code buy_b} is an optional second cost. Files naming the same profession add up, so a datapack can override one of
+ * our files to rebalance a profession or add trades to it from a file of its own.
+ */
+public class TradeTableLoader extends SimplePreparableReloadListener<Map<VillagerProfession, ProfessionTrades>> {
+    private static final Logger LOGGER = LogUtils.getLogger();
+    private static final String DIRECTORY = "villager_trades";
+
+    @Override
+    protected Map<VillagerProfession, ProfessionTrades> prepare(ResourceManager resourceManager, ProfilerFiller profiler) {
+        Map<VillagerProfession, ProfessionTrades.Builder> builders = new IdentityHashMap<>();
+        for (Map.Entry<ResourceLocation, Resource> file : resourceManager.listResources(DIRECTORY,
+                location -> location.getPath().endsWith(".json")).entrySet()) {
+            try (Reader reader = file.getValue().openAsReader()) {
+                read(builders, GsonHelper.parse(reader));
+            } catch (IllegalArgumentException | IOException | JsonParseException exception) {
+                LOGGER.error("Couldn't parse villager trades {} from {}", file.getKey(), file.getValue().sourcePackId(), exception);
+            }
+        }
+
+        Map<VillagerProfession, ProfessionTrades> tables = new IdentityHashMap<>();
+        builders.forEach((profession, builder) -> tables.put(profession, builder.build()));
+        return tables;
+    }
+
+    private static void read(Map<VillagerProfession, ProfessionTrades.Builder> builders, JsonObject json) {
+        ResourceLocation professionName = readLocation(json, "profession");
+        if (!ForgeRegistries.VILLAGER_PROFESSIONS.containsKey(professionName)) {
+            throw new JsonParseException("Unknown profession " + professionName);
+        }
+        VillagerProfession profession = ForgeRegistries.VILLAGER_PROFESSIONS.getValue(professionName);
+
+        // Validate the whole file before adding any of it
+        List<Pair<Integer, TradeTemplate>> trades = new ArrayList<>();
+        for (Map.Entry<String, JsonElement> levelTrades : GsonHelper.getAsJsonObject(json, "trades").entrySet()) {
+            int level = readLevel(levelTrades.getKey());
+            for (JsonElement trade : GsonHelper.convertToJsonArray(levelTrades.getValue(), "trades")) {
+                trades.add(Pair.of(level, readTrade(GsonHelper.convertToJsonObject(trade, "trade"))));
+            }
+        }
+
+        ProfessionTrades.Builder builder = builders.computeIfAbsent(profession, key -> ProfessionTrades.builder());
+        trades.forEach(trade -> builder.add(trade.getFirst(), trade.getSecond()));
+    }
+
+    private static int readLevel(String level) {
+        try {
+            int parsed = Integer.parseInt(level);
+            if (parsed >= VillagerData.MIN_VILLAGER_LEVEL && parsed <= VillagerData.MAX_VILLAGER_LEVEL) {
+                return parsed;
+            }
+        } catch (NumberFormatException ignored) {
+        }
+        throw new JsonParseException("Level must be between " + VillagerData.MIN_VILLAGER_LEVEL + " and "
+                + VillagerData.MAX_VILLAGER_LEVEL + ", was " + level);
+    }
+
+    private static TradeTemplate readTrade(JsonObject json) {
+        ItemStack buy = ShapedRecipe.itemStackFromJson(GsonHelper.getAsJsonObject(json, "buy"));
+        ItemStack buyB = json.has("buy_b") ? ShapedRecipe.itemStackFromJson(GsonHelper.getAsJsonObject(json, "buy_b")) : ItemStack.EMPTY;
+        ItemStack sell = ShapedRecipe.itemStackFromJson(GsonHelper.getAsJsonObject(json, "sell"));
+        int maxUses = GsonHelper.getAsInt(json, "max_uses");
+        int xp = GsonHelper.getAsInt(json, "xp", 1);
+        float priceMultiplier = GsonHelper.getAsFloat(json, "price_multiplier", 0.05F);
+        if (maxUses <= 0 || xp < 0 || priceMultiplier < 0.0F) {
+            throw new JsonParseException("max_uses must be positive, xp and price_multiplier must not be negative");
+        }
+        return new TradeTemplate(buy, buyB, sell, maxUses, xp, priceMultiplier);
+    }
+
+    private static ResourceLocation readLocation(JsonObject json, String member) {
+        try {
+            return new ResourceLocation(GsonHelper.getAsString(json, member));
+        } catch (ResourceLocationException exception) {
+            throw new JsonParseException("Invalid " + member + ": " + exception.getMessage());
+        }
+    }
+
+    @Override
+    protected void apply(Map<VillagerProfession, ProfessionTrades> tables, ResourceManager resourceManager, ProfilerFiller profiler) {
+        ModTrades.setTables(tables);
+    }
+}
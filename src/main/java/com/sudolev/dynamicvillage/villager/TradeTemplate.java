@@ -0,0 +1,77 @@
+package com.sudolev.dynamicvillage.villager;
+
+import com.sudolev.dynamicvillage.jfr.TradeOfferEvent;
+import com.sudolev.dynamicvillage.stats.VillageStats;
+import net.minecraft.nbt.CompoundTag;
+import net.minecraft.util.RandomSource;
+import net.minecraft.world.entity.Entity;
+import net.minecraft.world.entity.npc.VillagerDataHolder;
+import net.minecraft.world.entity.npc.VillagerTrades;
+import net.minecraft.world.item.Item;
+import net.minecraft.world.item.ItemStack;
+import net.minecraft.world.item.trading.MerchantOffer;
+import net.minecraftforge.registries.ForgeRegistries;
+import net.minecraftforge.registries.RegistryObject;
+
+import java.util.function.Supplier;
+
+// A fixed trade compiled from a trade table, every offer is a copy of its stacks
+public class TradeTemplate implements VillagerTrades.ItemListing {
+    private final ItemStack buy;
+    private final ItemStack buyB;
+    private final ItemStack sell;
+    private final int maxUses;
+    private final int xp;
+    private final float priceMultiplier;
+
+    public TradeTemplate(ItemStack buy, ItemStack buyB, ItemStack sell, int maxUses, int xp, float priceMultiplier) {
+        this.buy = buy;
+        this.buyB = buyB;
+        this.sell = sell;
+        this.maxUses = maxUses;
+        this.xp = xp;
+        this.priceMultiplier = priceMultiplier;
+    }
+
+    @Override
+    public MerchantOffer getOffer(Entity trader, RandomSource random) {
+        TradeOfferEvent jfrEvent = new TradeOfferEvent();
+        jfrEvent.begin();
+        MerchantOffer offer = new MerchantOffer(buy.copy(), buyB.copy(), sell.copy(), maxUses, xp, priceMultiplier);
+        VillageStats.recordTrade(trader);
+        if (jfrEvent.shouldCommit()) {
+            if (trader instanceof VillagerDataHolder villager) {
+                jfrEvent.profession = villager.getVillagerData().getProfession().toString();
+                jfrEvent.level = villager.getVillagerData().getLevel();
+            }
+            jfrEvent.result = String.valueOf(ForgeRegistries.ITEMS.getKey(sell.getItem()));
+            jfrEvent.commit();
+        }
+        return offer;
+    }
+
+    // Rolls offers the way the trades did before they were compiled, getting the registry objects and building new stacks
+    // for every offer. The baseline of TradeOfferBenchmark.
+    public VillagerTrades.ItemListing uncached() {
+        Supplier<ItemStack> buyStack = uncached(buy);
+        Supplier<ItemStack> buyBStack = uncached(buyB);
+        Supplier<ItemStack> sellStack = uncached(sell);
+        return (trader, random) -> {
+            MerchantOffer offer = new MerchantOffer(buyStack.get(), buyBStack.get(), sellStack.get(), maxUses, xp, priceMultiplier);
+            VillageStats.recordTrade(trader);
+            return offer;
+        };
+    }
+
+    private static Supplier<ItemStack> uncached(ItemStack prototype) {
+        if (prototype.isEmpty()) return () -> ItemStack.EMPTY;
+        RegistryObject<Item> item = RegistryObject.create(ForgeRegistries.ITEMS.getKey(prototype.getItem()), ForgeRegistries.ITEMS);
+        int count = prototype.getCount();
+        CompoundTag tag = prototype.getTag();
+        return () -> {
+            ItemStack stack = new ItemStack(item.get(), count);
+            if (tag != null) stack.setTag(tag.copy());
+            return stack;
+        };
+    }
+}
@@ -0,0 +1,127 @@
+package com.sudolev.dynamicvillage.villager;
+
+import com.sudolev.dynamicvillage.config.ModCommonConfigs;
+import it.unimi.dsi.fastutil.longs.Long2LongMap;
+import it.unimi.dsi.fastutil.longs.Long2LongOpenHashMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.objects.Reference2IntMap;
+import it.unimi.dsi.fastutil.objects.Reference2IntOpenHashMap;
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.Holder;
+import net.minecraft.core.SectionPos;
+import net.minecraft.world.entity.ai.village.poi.PoiManager;
+import net.minecraft.world.entity.ai.village.poi.PoiRecord;
+import net.minecraft.world.entity.ai.village.poi.PoiType;
+import net.minecraft.world.entity.ai.village.poi.PoiTypes;
+
+import java.util.Optional;
+
+/**
+ * Caps how many of each of our job sites one village can have claimed, so spare villagers take vanilla professions
+ * instead of crowding a few Create workstations. A village is the cluster of meeting points around the one closest to
+ * the job site. Claimed sites of a village are counted from the POI data the first time it is asked about, and from
+ * then on kept up to date from claims and releases. Only used on the server thread, like the PoiManager itself.
+ */
+public class VillageProfessionCaps {
+    // Same range villagers look for job sites in
+    private static final int VILLAGE_RANGE = 48;
+    private static final int CLUSTER_RANGE = 32;
+    private static final long NO_VILLAGE = Long.MAX_VALUE;
+
+    private final PoiManager poiManager;
+    private final Long2LongMap villageBySite = new Long2LongOpenHashMap();
+    private final Long2ObjectMap<Reference2IntMap<PoiType>> claimedByVillage = new Long2ObjectOpenHashMap<>();
+
+    public VillageProfessionCaps(PoiManager poiManager) {
+        this.poiManager = poiManager;
+        this.villageBySite.defaultReturnValue(NO_VILLAGE);
+    }
+
+    private static int getCap(Holder<PoiType> type) {
+        if (type.is(ModVillagers.CREATE_MINER_POI.getKey())) return ModCommonConfigs.MINERS_PER_VILLAGE.get();
+        if (type.is(ModVillagers.CREATE_ENGINEER_POI.getKey())) return ModCommonConfigs.MECHANICAL_ENGINEERS_PER_VILLAGE.get();
+        if (type.is(ModVillagers.CREATE_HYDRAULIC_ENGINEER_POI.getKey())) return ModCommonConfigs.HYDRAULIC_ENGINEERS_PER_VILLAGE.get();
+        if (type.is(ModVillagers.CREATE_MECHANIC_POI.getKey())) return ModCommonConfigs.TRAIN_MECHANICS_PER_VILLAGE.get();
+        return -1;
+    }
+
+    public boolean allows(BlockPos site) {
+        Optional<Holder<PoiType>> type = poiManager.getType(site);
+        if (type.isEmpty()) return true;
+        int cap = getCap(type.get());
+        if (cap < 0) return true;
+
+        long village = getVillage(site);
+        return village == NO_VILLAGE || getClaimed(village).getInt(type.get().value()) < cap;
+    }
+
+    private long getVillage(BlockPos site) {
+        long village = villageBySite.get(site.asLong());
+        if (village == NO_VILLAGE && !villageBySite.containsKey(site.asLong())) {
+            village = poiManager.findClosest(type -> type.is(PoiTypes.MEETING), site, VILLAGE_RANGE, PoiManager.Occupancy.ANY)
+                    .flatMap(meetingPoint -> poiManager.getInRange(type -> type.is(PoiTypes.MEETING), meetingPoint, CLUSTER_RANGE,
+                            PoiManager.Occupancy.ANY).map(record -> record.getPos().asLong()).min(Long::compare))
+                    .orElse(NO_VILLAGE);
+            villageBySite.put(site.asLong(), village);
+        }
+        return village;
+    }
+
+    private Reference2IntMap<PoiType> getClaimed(long village) {
+        Reference2IntMap<PoiType> claimed = claimedByVillage.get(village);
+        if (claimed == null) {
+            claimed = new Reference2IntOpenHashMap<>();
+            for (PoiRecord record : poiManager.getInRange(ModVillagers.JOB_SITES, BlockPos.of(village), VILLAGE_RANGE + CLUSTER_RANGE,
+                    PoiManager.Occupancy.IS_OCCUPIED).toList()) {
+                if (getVillage(record.getPos()) == village) {
+                    claimed.mergeInt(record.getPoiType().value(), 1, Integer::sum);
+                }
+            }
+            claimedByVillage.put(village, claimed);
+        }
+        return claimed;
+    }
+
+    public void onClaimed(Holder<PoiType> type, BlockPos site) {
+        if (!ModVillagers.JOB_SITES.test(type)) return;
+        // Villages that aren't counted yet will see the claim when they are
+        Reference2IntMap<PoiType> claimed = claimedByVillage.get(getVillage(site));
+        if (claimed != null) {
+            claimed.mergeInt(type.value(), 1, Integer::sum);
+        }
+    }
+
+    public void onReleased(Holder<PoiType> type, BlockPos site) {
+        if (!ModVillagers.JOB_SITES.test(type)) return;
+        Reference2IntMap<PoiType> claimed = claimedByVillage.get(getVillage(site));
+        if (claimed != null) {
+            claimed.computeIntIfPresent(type.value(), (key, count) -> Math.max(0, count - 1));
+        }
+    }
+
+    public void onAdded(Holder<PoiType> type) {
+        if (type.is(PoiTypes.MEETING)) clear();
+    }
+
+    public void onRemoved(Holder<PoiType> type, BlockPos site) {
+        if (type.is(PoiTypes.MEETING)) {
+            clear();
+        } else if (ModVillagers.JOB_SITES.test(type)) {
+            claimedByVillage.remove(getVillage(site));
+            villageBySite.remove(site.asLong());
+        }
+    }
+
+    // Sites in a freshly loaded section may already be claimed, villages in reach of it are counted again
+    public void onSectionLoad(long sectionKey) {
+        if (claimedByVillage.isEmpty()) return;
+        BlockPos center = SectionPos.of(sectionKey).center();
+        claimedByVillage.keySet().removeIf(village -> BlockPos.of(village).closerThan(center, VILLAGE_RANGE + CLUSTER_RANGE + SectionPos.SECTION_SIZE));
+    }
+
+    private void clear() {
+        villageBySite.clear();
+        claimedByVillage.clear();
+    }
+}
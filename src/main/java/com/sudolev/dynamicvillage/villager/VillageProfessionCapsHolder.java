@@ -0,0 +1,6 @@
+package com.sudolev.dynamicvillage.villager;
+
+// Implemented on PoiManager by PoiManagerMixin
+public interface VillageProfessionCapsHolder {
+    VillageProfessionCaps dynamicvillage$getProfessionCaps();
+}
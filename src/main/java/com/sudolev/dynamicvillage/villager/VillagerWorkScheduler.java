@@ -0,0 +1,87 @@
+package com.sudolev.dynamicvillage.villager;
+
+import com.sudolev.dynamicvillage.VillageLife;
+import com.sudolev.dynamicvillage.config.ModCommonConfigs;
+import com.sudolev.dynamicvillage.mixin.VillagerAccessor;
+import it.unimi.dsi.fastutil.objects.ReferenceLinkedOpenHashSet;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.world.entity.npc.Villager;
+import net.minecraftforge.event.TickEvent;
+import net.minecraftforge.eventbus.api.SubscribeEvent;
+import net.minecraftforge.fml.common.Mod;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Restocks and level-ups of our professions in one level. Villagers are queued from their own brain tick and handled at
+ * the end of the level tick, level-ups first, until the tick budget is used up. A level-up waits while the villager is
+ * trading, like it does in vanilla. Offers for the new level come from the trade tables compiled by {@link ModTrades}.
+ * Server thread only.
+ */
+@Mod.EventBusSubscriber(modid = VillageLife.MODID)
+public class VillagerWorkScheduler {
+    private final ReferenceLinkedOpenHashSet<Villager> levelUps = new ReferenceLinkedOpenHashSet<>();
+    private final ReferenceLinkedOpenHashSet<Villager> restocks = new ReferenceLinkedOpenHashSet<>();
+
+    public static void restock(Villager villager) {
+        if (isBatched(villager)) {
+            ((VillagerWorkSchedulerHolder) villager.level).dynamicvillage$getVillagerWorkScheduler().restocks.add(villager);
+        } else {
+            villager.restock();
+        }
+    }
+
+    public static void increaseMerchantCareer(Villager villager) {
+        if (isBatched(villager)) {
+            ((VillagerWorkSchedulerHolder) villager.level).dynamicvillage$getVillagerWorkScheduler().levelUps.add(villager);
+        } else {
+            ((VillagerAccessor) villager).dynamicvillage$increaseMerchantCareer();
+        }
+    }
+
+    private static boolean isBatched(Villager villager) {
+        return ModCommonConfigs.BATCHED_VILLAGER_WORK.get() && villager.level instanceof ServerLevel
+                && ModVillagers.isCreateProfession(villager.getVillagerData().getProfession());
+    }
+
+    public int size() {
+        return levelUps.size() + restocks.size();
+    }
+
+    public void run(long budgetNanos) {
+        long deadline = System.nanoTime() + budgetNanos;
+        List<Villager> trading = new ArrayList<>();
+        boolean handledAny = false;
+        while (!levelUps.isEmpty() || !restocks.isEmpty()) {
+            if (handledAny && System.nanoTime() >= deadline) break;
+
+            if (!levelUps.isEmpty()) {
+                Villager villager = levelUps.removeFirst();
+                if (villager.isRemoved()) continue;
+                if (villager.isTrading()) {
+                    trading.add(villager);
+                    continue;
+                }
+                ((VillagerAccessor) villager).dynamicvillage$increaseMerchantCareer();
+            } else {
+                Villager villager = restocks.removeFirst();
+                if (villager.isRemoved()) continue;
+                villager.restock();
+            }
+            handledAny = true;
+        }
+        levelUps.addAll(trading);
+    }
+
+    @SubscribeEvent
+    public static void onLevelTick(final TickEvent.LevelTickEvent event) {
+        if (event.phase == TickEvent.Phase.END && event.level instanceof ServerLevel level) {
+            VillagerWorkScheduler scheduler = ((VillagerWorkSchedulerHolder) level).dynamicvillage$getVillagerWorkScheduler();
+            if (scheduler.size() > 0) {
+                scheduler.run(TimeUnit.MICROSECONDS.toNanos(ModCommonConfigs.VILLAGER_WORK_BUDGET.get()));
+            }
+        }
+    }
+}
@@ -0,0 +1,6 @@
+package com.sudolev.dynamicvillage.villager;
+
+// Implemented on ServerLevel by ServerLevelMixin
+public interface VillagerWorkSchedulerHolder {
+    VillagerWorkScheduler dynamicvillage$getVillagerWorkScheduler();
+}